@@ -0,0 +1,135 @@
+package com.ascendcorp.exam.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ต้นทุน encode/decode ของ body ที่ /inquiry รับส่งได้ แยกตาม format (JSON / Smile / CBOR)
+// mapper สร้างแบบเดียวกับ BinaryContentConfig ขนาด payload ของแต่ละ format พิมพ์ไว้ตอน setup
+// mvn -P benchmark verify -Djmh.args="ContentFormatBenchmark"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentFormatBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    private ObjectWriter transferResponseWriter;
+    private ObjectReader transferResponseReader;
+    private ObjectWriter resultWriter;
+    private ObjectReader resultReader;
+    private ObjectWriter batchWriter;
+    private ObjectReader batchReader;
+
+    private TransferResponse transferResponse;
+    private InquiryServiceResultDTO result;
+    private List<TransferResponse> batch;
+    private byte[] transferResponseBytes;
+    private byte[] resultBytes;
+    private byte[] batchBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory(format)).build();
+        TypeReference<List<TransferResponse>> batchType = new TypeReference<List<TransferResponse>>() {
+        };
+        transferResponseWriter = objectMapper.writerFor(TransferResponse.class);
+        transferResponseReader = objectMapper.readerFor(TransferResponse.class);
+        resultWriter = objectMapper.writerFor(InquiryServiceResultDTO.class);
+        resultReader = objectMapper.readerFor(InquiryServiceResultDTO.class);
+        batchWriter = objectMapper.writerFor(batchType);
+        batchReader = objectMapper.readerFor(batchType);
+
+        transferResponse = TransferResponses.transferResponse();
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(TransferResponses.transferResponse("TX" + (10000 + i), "B001"));
+        }
+
+        result = new InquiryServiceResultDTO();
+        result.setTranID("TX12345");
+        result.setNamespace("testExam");
+        result.setReasonCode("200");
+        result.setReasonDesc("Transaction approved");
+        result.setAmount(Amount.parse("1000.0"));
+        result.setBalance(Amount.parse("1000.0"));
+        result.setRef_no1("REF001");
+        result.setRef_no2("REF002");
+        result.setAccountName("John");
+
+        transferResponseBytes = transferResponseWriter.writeValueAsBytes(transferResponse);
+        resultBytes = resultWriter.writeValueAsBytes(result);
+        batchBytes = batchWriter.writeValueAsBytes(batch);
+        System.out.printf("%n%s payload bytes: TransferResponse=%d, InquiryServiceResultDTO=%d, batch of %d=%d%n",
+                format, transferResponseBytes.length, resultBytes.length, BATCH_SIZE, batchBytes.length);
+    }
+
+    private static JsonFactory factory(String format) {
+        switch (format) {
+            case "smile":
+                return new SmileFactory();
+            case "cbor":
+                return new CBORFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+
+
+    @Benchmark
+    public byte[] encodeTransferResponse() throws IOException {
+        return transferResponseWriter.writeValueAsBytes(transferResponse);
+    }
+
+    @Benchmark
+    public TransferResponse decodeTransferResponse() throws IOException {
+        return transferResponseReader.readValue(transferResponseBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeInquiryServiceResult() throws IOException {
+        return resultWriter.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public InquiryServiceResultDTO decodeInquiryServiceResult() throws IOException {
+        return resultReader.readValue(resultBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeBatch() throws IOException {
+        return batchWriter.writeValueAsBytes(batch);
+    }
+
+    @Benchmark
+    public List<TransferResponse> decodeBatch() throws IOException {
+        return batchReader.readValue(batchBytes);
+    }
+}
@@ -0,0 +1,82 @@
+package com.ascendcorp.exam.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    private ObjectWriter transferResponseWriter;
+    private ObjectReader transferResponseReader;
+    private ObjectWriter resultWriter;
+    private ObjectReader resultReader;
+
+    private TransferResponse transferResponse;
+    private InquiryServiceResultDTO result;
+    private byte[] transferResponseJson;
+    private byte[] resultJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        transferResponseWriter = objectMapper.writerFor(TransferResponse.class);
+        transferResponseReader = objectMapper.readerFor(TransferResponse.class);
+        resultWriter = objectMapper.writerFor(InquiryServiceResultDTO.class);
+        resultReader = objectMapper.readerFor(InquiryServiceResultDTO.class);
+
+        transferResponse = TransferResponses.transferResponse();
+
+        result = new InquiryServiceResultDTO();
+        result.setTranID("TX12345");
+        result.setNamespace("testExam");
+        result.setReasonCode("200");
+        result.setReasonDesc("Transaction approved");
+        result.setAmount(Amount.parse("1000.0"));
+        result.setBalance(Amount.parse("1000.0"));
+        result.setRef_no1("REF001");
+        result.setRef_no2("REF002");
+        result.setAccountName("John");
+
+        transferResponseJson = transferResponseWriter.writeValueAsBytes(transferResponse);
+        resultJson = resultWriter.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public byte[] serializeTransferResponse() throws IOException {
+        return transferResponseWriter.writeValueAsBytes(transferResponse);
+    }
+
+    @Benchmark
+    public TransferResponse deserializeTransferResponse() throws IOException {
+        return transferResponseReader.readValue(transferResponseJson);
+    }
+
+    @Benchmark
+    public byte[] serializeInquiryServiceResult() throws IOException {
+        return resultWriter.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public InquiryServiceResultDTO deserializeInquiryServiceResult() throws IOException {
+        return resultReader.readValue(resultJson);
+    }
+}
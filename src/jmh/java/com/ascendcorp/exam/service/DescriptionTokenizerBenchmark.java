@@ -0,0 +1,57 @@
+package com.ascendcorp.exam.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// เทียบ String.split(":") เดิมกับ DescriptionTokenizer ดู gc.alloc.rate.norm ของสองตัวนี้
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DescriptionTokenizerBenchmark {
+
+    @Param({"500:TX01:Insufficient funds", "98:Transaction Failed", "General failure"})
+    private String description;
+
+    @Benchmark
+    public void split(Blackhole blackhole) {
+        String[] respDesc = description.split(":");
+        if (respDesc.length >= 3) {
+            blackhole.consume(respDesc[1]);
+            blackhole.consume(respDesc[2]);
+        } else if (respDesc.length >= 2) {
+            blackhole.consume(respDesc[0]);
+            blackhole.consume(respDesc[1]);
+        }
+    }
+
+    @Benchmark
+    public void tokenizer(Blackhole blackhole) {
+        int segments = DescriptionTokenizer.segmentCount(description);
+        if (segments >= 3) {
+            blackhole.consume(DescriptionTokenizer.segment(description, 1));
+            blackhole.consume(DescriptionTokenizer.segment(description, 2));
+        } else if (segments >= 2) {
+            blackhole.consume(DescriptionTokenizer.segment(description, 0));
+            blackhole.consume(DescriptionTokenizer.segment(description, 1));
+        }
+    }
+
+    @Benchmark
+    public int segmentCountOnly() {
+        return DescriptionTokenizer.segmentCount(description);
+    }
+}
@@ -0,0 +1,113 @@
+package com.ascendcorp.exam.service;
+
+import com.ascendcorp.exam.journal.InquiryJournal;
+import com.ascendcorp.exam.model.InquiryServiceResultDTO;
+import com.ascendcorp.exam.model.TransferResponse;
+import com.ascendcorp.exam.model.TransferResponses;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InquiryServiceBenchmark {
+
+    private InquiryService inquiryService;
+
+    private TransferResponse request;
+    private TransferResponse approved;
+    private TransferResponse invalidData;
+    private TransferResponse transactionError;
+    private TransferResponse transactionError98;
+    private TransferResponse unknown;
+
+    @Setup
+    public void setUp() {
+        inquiryService = new InquiryService();
+        ReflectionTestUtils.setField(inquiryService, "inquiryMetrics", new InquiryMetrics());
+        ReflectionTestUtils.setField(inquiryService, "responseCodeTable", new ResponseCodeTable());
+        ReflectionTestUtils.setField(inquiryService, "inquiryJournal", new InquiryJournal());
+
+        request = response("approved", "Transaction approved");
+        approved = response("approved", "Transaction approved");
+        invalidData = response("invalid_data", "400:Invalid:Invalid Account Number");
+        transactionError = response("transaction_error", "500:TX01:Insufficient funds");
+        transactionError98 = response("transaction_error", "98:Transaction Failed");
+        unknown = response("unknown", "501:Unknown Error");
+    }
+
+    private static TransferResponse response(String responseCode, String description) {
+        TransferResponse response = TransferResponses.transferResponse();
+        response.setResponseCode(responseCode);
+        response.setDescription(description);
+        return response;
+    }
+
+    @Benchmark
+    public TransferResponse validateRequest() {
+        inquiryService.validateRequest(request);
+        return request;
+    }
+
+    @Benchmark
+    public InquiryServiceResultDTO processResponseApproved() {
+        return inquiryService.processResponse(approved);
+    }
+
+    @Benchmark
+    public InquiryServiceResultDTO processResponseInvalidData() {
+        return inquiryService.processResponse(invalidData);
+    }
+
+    @Benchmark
+    public InquiryServiceResultDTO processResponseTransactionError() {
+        return inquiryService.processResponse(transactionError);
+    }
+
+    @Benchmark
+    public InquiryServiceResultDTO processResponseUnknown() {
+        return inquiryService.processResponse(unknown);
+    }
+
+    @Benchmark
+    public InquiryServiceResultDTO handleInvalidData() {
+        InquiryServiceResultDTO respDTO = new InquiryServiceResultDTO();
+        inquiryService.handleInvalidData(invalidData, respDTO);
+        return respDTO;
+    }
+
+    @Benchmark
+    public InquiryServiceResultDTO handleTransactionError() {
+        InquiryServiceResultDTO respDTO = new InquiryServiceResultDTO();
+        inquiryService.handleTransactionError(transactionError, respDTO);
+        return respDTO;
+    }
+
+    @Benchmark
+    public InquiryServiceResultDTO handleTransactionError98() {
+        InquiryServiceResultDTO respDTO = new InquiryServiceResultDTO();
+        inquiryService.handleTransactionError(transactionError98, respDTO);
+        return respDTO;
+    }
+
+    @Benchmark
+    public InquiryServiceResultDTO handleUnknownError() {
+        InquiryServiceResultDTO respDTO = new InquiryServiceResultDTO();
+        inquiryService.handleUnknownError(unknown, respDTO);
+        return respDTO;
+    }
+}
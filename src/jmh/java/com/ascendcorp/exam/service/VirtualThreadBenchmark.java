@@ -0,0 +1,129 @@
+package com.ascendcorp.exam.service;
+
+import com.ascendcorp.exam.config.BankGuardProperties;
+import com.ascendcorp.exam.config.BankHedgeProperties;
+import com.ascendcorp.exam.config.BankRateLimitProperties;
+import com.ascendcorp.exam.config.VirtualThreadConfig;
+import com.ascendcorp.exam.journal.InquiryJournal;
+import com.ascendcorp.exam.model.TransferResponse;
+import com.ascendcorp.exam.model.TransferResponses;
+import com.ascendcorp.exam.proxy.BankCallGuard;
+import com.ascendcorp.exam.proxy.BankProxyGateway;
+import com.ascendcorp.exam.proxy.BankRateLimiter;
+import com.ascendcorp.exam.proxy.BankRequestHedger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// เทียบ platform thread pool ขนาดเท่า Tomcat (server.tomcat.threads.max=200) กับ virtual thread ต่อ request
+// แต่ละ op ยิง inquiry พร้อมกัน `requests` รายการ gateway block ตาม latencyMillis เหมือนธนาคารช้า
+// โหมด virtual ต้องรันบน JDK 21 ขึ้นไป: mvn -P benchmark verify -Djmh.args="VirtualThreadBenchmark"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"20", "100"})
+    public long latencyMillis;
+
+    @Param({"2000"})
+    public int requests;
+
+    private ExecutorService executor;
+    private InquiryService inquiryService;
+    private TransferResponse[] batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("virtual".equals(mode)) {
+            executor = VirtualThreadConfig.newVirtualThreadPerTaskExecutor("bench-vt-");
+            if (executor == null) {
+                throw new IllegalStateException("virtual mode requires JDK 21+, running " + System.getProperty("java.version"));
+            }
+        } else {
+            executor = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        }
+
+        // ปิด bulkhead เพื่อวัดเฉพาะผลของ thread model
+        BankGuardProperties guardProperties = new BankGuardProperties();
+        guardProperties.setEnabled(false);
+
+        inquiryService = new InquiryService();
+        ReflectionTestUtils.setField(inquiryService, "bankProxyGateway", new SlowBankProxyGateway(latencyMillis));
+        ReflectionTestUtils.setField(inquiryService, "inquiryResultCache", new InquiryResultCache());
+        ReflectionTestUtils.setField(inquiryService, "bankCallGuard", new BankCallGuard(guardProperties));
+        ReflectionTestUtils.setField(inquiryService, "bankRequestHedger", new BankRequestHedger(new BankHedgeProperties()));
+        ReflectionTestUtils.setField(inquiryService, "inquiryMetrics", new InquiryMetrics());
+        ReflectionTestUtils.setField(inquiryService, "responseCodeTable", new ResponseCodeTable());
+        ReflectionTestUtils.setField(inquiryService, "inquiryJournal", new InquiryJournal());
+        ReflectionTestUtils.setField(inquiryService, "bankRateLimiter", new BankRateLimiter(new BankRateLimitProperties()));
+
+        batch = new TransferResponse[requests];
+        for (int i = 0; i < requests; i++) {
+            batch[i] = TransferResponses.transferResponse("TX" + i, "B001");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int concurrentInquiries() throws Exception {
+        List<Future<?>> futures = new ArrayList<>(batch.length);
+        for (TransferResponse request : batch) {
+            futures.add(executor.submit(() -> inquiryService.inquiry(request)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return futures.size();
+    }
+
+    static final class SlowBankProxyGateway extends BankProxyGateway {
+
+        private final long latencyMillis;
+
+        SlowBankProxyGateway(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public TransferResponse requestTransfer(TransferResponse transferResponse) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return super.requestTransfer(transferResponse);
+        }
+    }
+}
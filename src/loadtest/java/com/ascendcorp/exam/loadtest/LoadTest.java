@@ -0,0 +1,267 @@
+package com.ascendcorp.exam.loadtest;
+
+import com.ascendcorp.exam.ExamApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// load test แบบ open loop: ยิง request ตามเวลาที่กำหนดไว้ล่วงหน้า (rate คงที่) ไม่รอ response ก่อนหน้า
+// latency วัดจากเวลาที่ request "ควร" ถูกส่ง ไม่ใช่เวลาที่ส่งได้จริง ถ้า server หรือ client ตามไม่ทัน
+// เวลาที่รอคิวจะถูกนับด้วย (แก้ coordinated omission) ส่วน service time วัดจากเวลาที่ส่งจริงแยกไว้เทียบ
+//
+// mvn -P loadtest verify -Dloadtest.args="--rate=2000 --duration=60s"
+// ไม่ใส่ --target จะ start app ในตัวด้วย profile simulated (port สุ่ม) อาร์กิวเมนต์อื่นที่ไม่รู้จักส่งต่อให้ app
+// เช่น --spring.main.web-application-type=reactive หรือ --bank.simulated.max-tps=1000
+public class LoadTest {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String endpoint;
+    private final int rate;
+    private final int batchSize;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int maxInFlight;
+    private final File reportDir;
+
+    private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    LoadTest(Map<String, String> options) {
+        this.endpoint = options.getOrDefault("endpoint", "transaction");
+        this.rate = Integer.parseInt(options.getOrDefault("rate", "500"));
+        this.batchSize = Integer.parseInt(options.getOrDefault("batch-size", "10"));
+        this.warmup = parseDuration(options.getOrDefault("warmup", "10s"));
+        this.duration = parseDuration(options.getOrDefault("duration", "30s"));
+        this.maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "10000"));
+        this.reportDir = new File(options.getOrDefault("report-dir", "target/loadtest"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String key = arg.startsWith("--") && eq > 0 ? arg.substring(2, eq) : null;
+            if (key != null && isLoadTestOption(key)) {
+                options.put(key, arg.substring(eq + 1));
+            } else if (!arg.trim().isEmpty()) {
+                appArgs.add(arg);
+            }
+        }
+
+        ConfigurableApplicationContext context = null;
+        String target = options.get("target");
+        if (target == null) {
+            appArgs.add("--server.port=0");
+            SpringApplication application = new SpringApplication(ExamApplication.class);
+            application.setAdditionalProfiles("simulated");
+            context = application.run(appArgs.toArray(new String[0]));
+            target = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            new LoadTest(options).run(target, Integer.parseInt(options.getOrDefault("connections", "1000")));
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static boolean isLoadTestOption(String key) {
+        switch (key) {
+            case "target":
+            case "endpoint":
+            case "rate":
+            case "batch-size":
+            case "warmup":
+            case "duration":
+            case "max-in-flight":
+            case "connections":
+            case "report-dir":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    void run(String target, int connections) throws Exception {
+        ConnectionProvider provider = ConnectionProvider.builder("loadtest")
+                .maxConnections(connections)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient client = WebClient.builder()
+                .baseUrl(target)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider)))
+                .build();
+        String path = "transactions".equals(endpoint) ? "/inquiry/transactions" : "/inquiry/transaction";
+
+        System.out.printf("Load test %s%s rate=%d/s warmup=%ss duration=%ss%n",
+                target, path, rate, warmup.getSeconds(), duration.getSeconds());
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureStart = start + warmup.toNanos();
+        long end = measureStart + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended - end >= 0) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            boolean measured = intended - measureStart >= 0;
+            if (inFlight.get() >= maxInFlight) {
+                // client ไม่ส่งเพิ่ม นับเป็น request ที่หายไปแทนที่จะเลื่อนเวลาส่ง (ซึ่งจะซ่อน latency)
+                if (measured) {
+                    dropped.increment();
+                }
+                continue;
+            }
+            send(client, path, body(i), intended, measured);
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() - drainDeadline < 0) {
+            Thread.sleep(10);
+        }
+        provider.disposeLater().block(Duration.ofSeconds(5));
+
+        report(System.out);
+        writeReports();
+    }
+
+    private void send(WebClient client, String path, String body, long intendedNanos, boolean measured) {
+        inFlight.incrementAndGet();
+        long sentNanos = System.nanoTime();
+        client.post()
+                .uri(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.rawStatusCode()))
+                .subscribe(status -> completed(status, intendedNanos, sentNanos, measured),
+                        e -> completed(-1, intendedNanos, sentNanos, measured));
+    }
+
+    private void completed(int status, long intendedNanos, long sentNanos, boolean measured) {
+        long now = System.nanoTime();
+        inFlight.decrementAndGet();
+        if (!measured) {
+            return;
+        }
+        completed.increment();
+        if (status < 200 || status >= 300) {
+            errors.increment();
+        }
+        statuses.computeIfAbsent(status, k -> new LongAdder()).increment();
+        latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(now - intendedNanos), HIGHEST_TRACKABLE_MICROS));
+        serviceTime.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(now - sentNanos), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    // tranId ไม่ซ้ำกันทุก request ไม่ให้ dedup / cache ของ InquiryService ช่วยให้ตัวเลขดูดีเกินจริง
+    private String body(long sequence) {
+        if (!"transactions".equals(endpoint)) {
+            return transferResponse("LT" + sequence);
+        }
+        StringBuilder sb = new StringBuilder(batchSize * 300).append('[');
+        for (int i = 0; i < batchSize; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(transferResponse("LT" + sequence + "-" + i));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String transferResponse(String tranId) {
+        return "{\"bankTransactionID\":\"" + tranId + "\",\"responseCode\":\"approved\","
+                + "\"tranDateTime\":\"2024-01-31T10:00:00.000+0000\",\"channel\":\"ATM\",\"locationCode\":\"LOC001\","
+                + "\"bankCode\":\"B00" + (tranId.hashCode() & 3) + "\",\"bankNumber\":\"123456\","
+                + "\"description\":\"Transaction approved\",\"amount\":1000.0,"
+                + "\"referenceCode1\":\"REF001\",\"referenceCode2\":\"REF002\","
+                + "\"firstName\":\"John\",\"lastName\":\"Doe\"}";
+    }
+
+    void report(PrintStream out) {
+        double seconds = duration.toNanos() / 1e9;
+        // unfinished = ยังไม่ได้ response หลังรอ 30 วินาที ไม่อยู่ใน histogram
+        out.printf("requests=%d errors=%d dropped=%d unfinished=%d throughput=%.1f/s statuses=%s%n",
+                completed.sum(), errors.sum(), dropped.sum(), inFlight.get(), completed.sum() / seconds, statuses);
+        out.printf("%-26s %10s %10s %10s %10s %10s%n", "latency (ms)", "p50", "p99", "p99.9", "max", "mean");
+        printRow(out, "corrected (intended start)", latency);
+        printRow(out, "service time (sent)", serviceTime);
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram) {
+        out.printf("%-26s %10.2f %10.2f %10.2f %10.2f %10.2f%n", name,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0,
+                histogram.getMean() / 1000.0);
+    }
+
+    // ไฟล์ .hgrm เปิดดูเป็นกราฟได้ที่ HdrHistogram plotter ค่าในไฟล์เป็นมิลลิวินาที
+    private void writeReports() throws IOException {
+        if (!reportDir.isDirectory() && !reportDir.mkdirs()) {
+            throw new IOException("Unable to create " + reportDir);
+        }
+        writeHistogram(new File(reportDir, "latency-corrected.hgrm"), latency);
+        writeHistogram(new File(reportDir, "service-time.hgrm"), serviceTime);
+        try (PrintStream out = new PrintStream(new FileOutputStream(new File(reportDir, "summary.txt")), true, "UTF-8")) {
+            report(out);
+        }
+        System.out.println("Histograms written to " + reportDir.getAbsolutePath());
+    }
+
+    private static void writeHistogram(File file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(new FileOutputStream(file), true, "UTF-8")) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    static Duration parseDuration(String value) {
+        String v = value.trim().toLowerCase();
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(v));
+    }
+}
@@ -0,0 +1,277 @@
+package com.ascendcorp.exam.loadtest;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// วัดเวลาตั้งแต่ start process จนได้ response 200 ครั้งแรกจาก /inquiry/transaction และ RSS ณ ตอนนั้น
+// เทียบ jar เดิม (java -jar) กับโหมด faststart (jar ที่แตกแล้ว + AppCDS archive + profile faststart)
+// และ native executable ถ้ามี ทุก variant start ใหม่ทุกรอบ (cold start) รันทีละ process
+//
+// mvn -P faststart verify -Dstartup.args="--runs=10"
+// ขั้นแรกจะสร้าง target/faststart/classpath.txt และ AppCDS archive (app.jsa) จาก training run:
+// start โหมด faststart ด้วย -XX:ArchiveClassesAtExit ยิง request จนผ่าน แล้วปิดด้วย SIGTERM ให้ JVM เขียน archive
+public class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "com.ascendcorp.exam.ExamApplication";
+    private static final Pattern CLASSPATH_ENTRY = Pattern.compile("\"([^\"]+)\"");
+
+    private static final String REQUEST = "{\"bankTransactionID\":\"STARTUP1\",\"responseCode\":\"approved\","
+            + "\"tranDateTime\":\"2024-01-31T10:00:00.000+0000\",\"channel\":\"ATM\",\"locationCode\":\"LOC001\","
+            + "\"bankCode\":\"B001\",\"bankNumber\":\"123456\",\"description\":\"Transaction approved\",\"amount\":1000.0,"
+            + "\"referenceCode1\":\"REF001\",\"referenceCode2\":\"REF002\",\"firstName\":\"John\",\"lastName\":\"Doe\"}";
+
+    private final File jar;
+    private final File exploded;
+    private final File workDir;
+    private final File nativeExecutable;
+    private final int runs;
+    private final int port;
+    private final boolean aot;
+    private final long timeoutNanos;
+    private final String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+    StartupBenchmark(Map<String, String> options) {
+        this.jar = new File(required(options, "jar"));
+        this.workDir = new File(options.getOrDefault("work-dir", "target/faststart"));
+        this.exploded = new File(options.getOrDefault("exploded", new File(workDir, "app").getPath()));
+        String nativePath = options.get("native");
+        this.nativeExecutable = nativePath != null && !nativePath.isEmpty() ? new File(nativePath) : null;
+        this.runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        this.port = Integer.parseInt(options.getOrDefault("port", "18080"));
+        this.aot = Boolean.parseBoolean(options.getOrDefault("aot", "false"));
+        this.timeoutNanos = LoadTest.parseDuration(options.getOrDefault("timeout", "120s")).toNanos();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (arg.startsWith("--") && eq > 0) {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        new StartupBenchmark(options).run();
+    }
+
+    private static String required(Map<String, String> options, String key) {
+        String value = options.get(key);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("--" + key + " is required");
+        }
+        return value;
+    }
+
+    void run() throws Exception {
+        if (!workDir.isDirectory() && !workDir.mkdirs()) {
+            throw new IOException("Unable to create " + workDir);
+        }
+        String classpath = writeClasspath();
+        File archive = new File(workDir, "app.jsa");
+        boolean cds = javaVersion() >= 13;
+        if (!cds) {
+            System.out.println("AppCDS dynamic archive needs JDK 13+, running on " + System.getProperty("java.version")
+                    + "; faststart runs without it");
+        } else if (!archive.isFile()) {
+            train(classpath, archive);
+        }
+
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        variants.put("jar", command(java, "-jar", jar.getPath()));
+        List<String> fastStart = command(java);
+        if (cds && archive.isFile()) {
+            fastStart.add("-XX:SharedArchiveFile=" + archive.getPath());
+        }
+        if (aot) {
+            fastStart.add("-DspringAot=true");
+        }
+        fastStart.addAll(Arrays.asList("-cp", classpath, MAIN_CLASS, "--spring.profiles.active=faststart"));
+        variants.put("faststart", fastStart);
+        if (nativeExecutable != null && nativeExecutable.canExecute()) {
+            variants.put("native", command(nativeExecutable.getPath(), "--spring.profiles.active=faststart"));
+        }
+
+        Map<String, List<long[]>> results = new LinkedHashMap<>();
+        for (int run = 0; run < runs; run++) {
+            for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+                long[] result = measure(variant.getKey() + "-" + run, variant.getValue());
+                System.out.printf("%-10s run %d: first response %d ms, RSS %s MB%n",
+                        variant.getKey(), run, result[0], result[1] >= 0 ? String.valueOf(result[1] / 1024) : "n/a");
+                results.computeIfAbsent(variant.getKey(), k -> new ArrayList<>()).add(result);
+            }
+        }
+
+        report(System.out, results);
+        try (PrintStream out = new PrintStream(new FileOutputStream(new File(workDir, "startup-summary.txt")), true, "UTF-8")) {
+            report(out, results);
+        }
+    }
+
+    private List<String> command(String... parts) {
+        return new ArrayList<>(Arrays.asList(parts));
+    }
+
+    // BOOT-INF/classpath.idx เก็บลำดับ jar ไว้ classpath ต้องเหมือนเดิมทุกครั้ง archive ถึงจะใช้ได้
+    private String writeClasspath() throws IOException {
+        File index = new File(exploded, "BOOT-INF/classpath.idx");
+        if (!index.isFile()) {
+            throw new IOException(index + " not found; build with mvn -P faststart package to extract the jar");
+        }
+        StringBuilder classpath = new StringBuilder(new File(exploded, "BOOT-INF/classes").getPath());
+        for (String line : Files.readAllLines(index.toPath(), StandardCharsets.UTF_8)) {
+            Matcher matcher = CLASSPATH_ENTRY.matcher(line);
+            if (matcher.find()) {
+                classpath.append(File.pathSeparatorChar).append(new File(exploded, matcher.group(1)).getPath());
+            }
+        }
+        Files.write(new File(workDir, "classpath.txt").toPath(), classpath.toString().getBytes(StandardCharsets.UTF_8));
+        return classpath.toString();
+    }
+
+    private void train(String classpath, File archive) throws Exception {
+        System.out.println("Creating AppCDS archive " + archive);
+        List<String> command = command(java, "-XX:ArchiveClassesAtExit=" + archive.getPath());
+        if (aot) {
+            command.add("-DspringAot=true");
+        }
+        command.addAll(Arrays.asList("-cp", classpath, MAIN_CLASS, "--spring.profiles.active=faststart"));
+        Process process = start(command, new File(workDir, "training.log"));
+        try {
+            awaitFirstResponse(process);
+            // class ของ path ที่ใช้บ่อยหลัง request แรกก็ควรอยู่ใน archive ด้วย
+            for (int i = 0; i < 20; i++) {
+                post();
+            }
+        } finally {
+            stop(process);
+        }
+        if (!archive.isFile()) {
+            System.out.println("JVM did not write " + archive + "; see " + new File(workDir, "training.log"));
+        }
+    }
+
+    private long[] measure(String name, List<String> command) throws Exception {
+        long start = System.nanoTime();
+        Process process = start(command, new File(workDir, name + ".log"));
+        try {
+            awaitFirstResponse(process);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new long[]{elapsedMillis, rssKilobytes(process)};
+        } finally {
+            stop(process);
+        }
+    }
+
+    private Process start(List<String> command, File log) throws IOException {
+        command.add("--server.port=" + port);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+    }
+
+    private void awaitFirstResponse(Process process) throws Exception {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (System.nanoTime() - deadline < 0) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Process exited with " + process.exitValue() + " before responding");
+            }
+            try {
+                if (post() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // ยังไม่ listen
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No successful response within " + TimeUnit.NANOSECONDS.toSeconds(timeoutNanos) + "s");
+    }
+
+    private int post() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/inquiry/transaction").openConnection();
+        connection.setConnectTimeout(1000);
+        connection.setReadTimeout(10_000);
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(REQUEST.getBytes(StandardCharsets.UTF_8));
+        }
+        int status = connection.getResponseCode();
+        InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        if (body != null) {
+            body.close();
+        }
+        connection.disconnect();
+        return status;
+    }
+
+    // SIGTERM ให้ shutdown ปกติ (ต้องการสำหรับ ArchiveClassesAtExit) เกิน 30 วินาทีค่อย kill
+    private static void stop(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    // Process.pid() มีตั้งแต่ Java 9 project ยัง build ด้วย 1.8 จึงเรียกผ่าน reflection อ่าน RSS ได้บน Linux เท่านั้น
+    private static long rssKilobytes(Process process) {
+        try {
+            Object pid = Process.class.getMethod("pid").invoke(process);
+            File status = new File("/proc/" + pid + "/status");
+            try (BufferedReader reader = Files.newBufferedReader(status.toPath(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("VmRSS:")) {
+                        return Long.parseLong(line.replaceAll("\\D", ""));
+                    }
+                }
+            }
+        } catch (ReflectiveOperationException | IOException | RuntimeException e) {
+            // ไม่มีข้อมูล RSS
+        }
+        return -1;
+    }
+
+    private static int javaVersion() {
+        String version = System.getProperty("java.specification.version");
+        return Integer.parseInt(version.startsWith("1.") ? version.substring(2) : version);
+    }
+
+    private void report(PrintStream out, Map<String, List<long[]>> results) {
+        out.printf("%-10s %8s %8s %8s %12s%n", "variant", "p50 ms", "min ms", "max ms", "p50 RSS MB");
+        for (Map.Entry<String, List<long[]>> entry : results.entrySet()) {
+            List<Long> millis = new ArrayList<>();
+            List<Long> rss = new ArrayList<>();
+            for (long[] result : entry.getValue()) {
+                millis.add(result[0]);
+                rss.add(result[1]);
+            }
+            Collections.sort(millis);
+            Collections.sort(rss);
+            long medianRss = rss.get(rss.size() / 2);
+            out.printf("%-10s %8d %8d %8d %12s%n", entry.getKey(),
+                    millis.get(millis.size() / 2), millis.get(0), millis.get(millis.size() - 1),
+                    medianRss >= 0 ? String.valueOf(medianRss / 1024) : "n/a");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.ascendcorp.exam.config;
+
+import com.ascendcorp.exam.model.Amount;
+import com.fasterxml.jackson.databind.cfg.ContextAttributes;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// inquiry.amount.format เลือกรูปแบบตัวอักษรของ Amount ใน response ทุก format (JSON / Smile / CBOR / NDJSON)
+// ส่งให้ AmountJsonSerializer ผ่าน default attribute ของ ObjectMapper ที่ Boot สร้าง
+// mapper ที่สร้างเองนอก Spring (test, benchmark) ไม่มี attribute นี้ ได้ COMPAT
+@Configuration
+public class AmountFormatConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer amountFormatCustomizer(
+            @Value("${inquiry.amount.format:compat}") Amount.Format format) {
+        return builder -> builder.postConfigurer(objectMapper ->
+                objectMapper.setDefaultAttributes(ContextAttributes.getEmpty().withSharedAttribute(Amount.Format.class, format)));
+    }
+}
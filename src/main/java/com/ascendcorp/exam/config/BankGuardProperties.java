@@ -0,0 +1,73 @@
+package com.ascendcorp.exam.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "bank.guard")
+public class BankGuardProperties {
+
+    private boolean enabled = true;
+
+    // จำนวนธนาคารสูงสุดที่จะแยก guard ให้ เกินจากนี้ใช้ guard รวมตัวเดียว กัน bankCode ขยะทำ memory โต
+    private int maxBanks = 256;
+
+    private Bulkhead bulkhead = new Bulkhead();
+
+    private Breaker breaker = new Breaker();
+
+    private Limiter limiter = new Limiter();
+
+    @Data
+    public static class Bulkhead {
+
+        private int maxConcurrent = 50;
+
+        private Duration maxWait = Duration.ZERO;
+
+        private Map<String, Integer> banks = new HashMap<>();
+    }
+
+    @Data
+    public static class Breaker {
+
+        private int windowSize = 50;
+
+        private int minimumCalls = 20;
+
+        private float failureRateThreshold = 50;
+
+        private Duration slowCallDuration = Duration.ofSeconds(2);
+
+        private float slowCallRateThreshold = 80;
+
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        private int halfOpenCalls = 5;
+    }
+
+    // ถ้าเปิด limit ต่อธนาคารจะปรับเองตาม RTT โดยมี bulkhead.maxConcurrent (หรือค่าต่อธนาคาร) เป็นเพดาน
+    @Data
+    public static class Limiter {
+
+        private boolean enabled = false;
+
+        private int initialLimit = 20;
+
+        private int minLimit = 1;
+
+        private double tolerance = 1.5;
+
+        private double smoothing = 0.2;
+
+        private double backoffRatio = 0.9;
+
+        private int longWindow = 600;
+    }
+}
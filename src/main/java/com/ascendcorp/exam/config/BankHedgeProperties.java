@@ -0,0 +1,34 @@
+package com.ascendcorp.exam.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "bank.hedge")
+public class BankHedgeProperties {
+
+    private boolean enabled = false;
+
+    // เปิด hedge เฉพาะ bankCode หรือ channel ที่อยู่ในรายการ
+    private Set<String> banks = new HashSet<>();
+
+    private Set<String> channels = new HashSet<>();
+
+    // ยิง hedge เมื่อ call แรกยังไม่ตอบเกิน percentile นี้ของ latency ล่าสุดของธนาคารนั้น
+    private double percentile = 95;
+
+    private Duration minDelay = Duration.ofMillis(20);
+
+    // จำนวน hedge สูงสุดเทียบกับจำนวน request (%)
+    private double budgetPercent = 10;
+
+    private int windowSize = 256;
+
+    private int minSamples = 20;
+}
@@ -0,0 +1,38 @@
+package com.ascendcorp.exam.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// โควต้า TPS ของแต่ละธนาคาร โหลดใหม่ระหว่างรันได้ผ่าน ConfigReloader
+@Data
+@Component
+@ConfigurationProperties(prefix = "bank.rate-limit")
+public class BankRateLimitProperties {
+
+    private boolean enabled = false;
+
+    // รอ token ได้นานสุดเท่าไหร่ก่อนปฏิเสธด้วย reason code 429, 0 = ปฏิเสธทันที
+    private Duration maxWait = Duration.ZERO;
+
+    // ใช้กับธนาคารที่ไม่ได้ตั้งใน banks แต่ละธนาคารได้ bucket ของตัวเอง tps 0 = ไม่จำกัด
+    private Quota defaultQuota = new Quota();
+
+    private Map<String, Quota> banks = new HashMap<>();
+
+    @Data
+    public static class Quota {
+
+        private double tps = 0;
+
+        // จำนวน call ที่ยิงติดกันได้ทันทีเมื่อ bucket เต็ม
+        private int burst = 1;
+
+        // ไม่ตั้งจะใช้ maxWait รวม
+        private Duration maxWait;
+    }
+}
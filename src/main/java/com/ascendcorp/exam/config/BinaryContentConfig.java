@@ -0,0 +1,67 @@
+package com.ascendcorp.exam.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// /inquiry รับ/ส่ง Smile (application/x-jackson-smile) และ CBOR (application/cbor) ได้นอกจาก JSON
+// เลือกตาม Content-Type ของ request และ Accept ของ response ไม่ระบุหรือ */* ยังได้ JSON (converter JSON อยู่ลำดับก่อน)
+// mapper ของทุก format สร้างจาก Jackson2ObjectMapperBuilder ของ Boot ตัวเดียวกับ JSON ค่า spring.jackson.* จึงมีผลเหมือนกัน
+// (bean ของ builder เป็น prototype แต่ละ parameter ได้ builder ใหม่)
+@Configuration
+public class BinaryContentConfig {
+
+    // bean ชนิดเดียวกับ converter ตั้งต้นของ Spring MVC จะแทนที่ตัวเดิมในลำดับเดิม
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class ServletConverters {
+
+        @Bean
+        public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+            return new MappingJackson2SmileHttpMessageConverter(smileMapper(builder));
+        }
+
+        @Bean
+        public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+            return new MappingJackson2CborHttpMessageConverter(cborMapper(builder));
+        }
+    }
+
+    // WebFlux มี codec Smile เป็นค่าตั้งต้นแต่ไม่มี CBOR จึงลงทะเบียน CBOR เป็น custom codec (ต่อท้าย codec ตั้งต้น)
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    static class ReactiveCodecs {
+
+        @Bean
+        public CodecCustomizer binaryCodecCustomizer(Jackson2ObjectMapperBuilder smileBuilder,
+                                                     Jackson2ObjectMapperBuilder cborBuilder) {
+            ObjectMapper smile = smileMapper(smileBuilder);
+            ObjectMapper cbor = cborMapper(cborBuilder);
+            return configurer -> {
+                configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smile));
+                configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smile));
+                configurer.customCodecs().register(new Jackson2CborDecoder(cbor));
+                configurer.customCodecs().register(new Jackson2CborEncoder(cbor));
+            };
+        }
+    }
+
+    static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new SmileFactory()).build();
+    }
+
+    static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory()).build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.ascendcorp.exam.config;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.PropertiesPropertySource;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// โหลดค่า config บางส่วนใหม่ระหว่างรันโดยไม่ต้อง restart
+// ถ้าตั้ง config.reload.file จะเช็ค lastModified ของไฟล์ทุก config.reload.interval เมื่อไฟล์เปลี่ยน
+// ค่าในไฟล์จะทับค่าเดิมใน Environment แล้ว bind prefix ที่ลงทะเบียนไว้เป็น object ใหม่ส่งให้ listener
+// ใช้คู่กับ --spring.config.additional-location=file:<ไฟล์เดียวกัน> ค่าตอน start กับตอน reload จะมาจากที่เดียวกัน
+@Component
+public class ConfigReloader {
+
+    final static Logger log = LogManager.getLogger(ConfigReloader.class);
+
+    private static final String PROPERTY_SOURCE_NAME = "reloadableConfig";
+
+    @Autowired
+    private ConfigurableEnvironment environment;
+
+    @Value("${config.reload.file:}")
+    private String file;
+
+    @Value("${config.reload.interval:10s}")
+    private Duration interval;
+
+    private final List<Registration<?>> registrations = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService timer;
+    private volatile long lastModified;
+
+    @PostConstruct
+    public void start() {
+        if (file == null || file.isEmpty()) {
+            return;
+        }
+        lastModified = new File(file).lastModified();
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "config-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(this::checkForChanges, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Watching {} for config changes every {}", file, interval);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
+
+    public <T> void register(String prefix, Class<T> type, Consumer<T> listener) {
+        registrations.add(new Registration<>(prefix, type, listener));
+    }
+
+    private void checkForChanges() {
+        long modified = new File(file).lastModified();
+        if (modified != 0 && modified != lastModified) {
+            lastModified = modified;
+            reload();
+        }
+    }
+
+    // ไฟล์ที่อ่านไม่ได้หรือ bind ไม่ผ่าน จะใช้ค่าเดิมต่อ
+    public synchronized void reload() {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(new File(file).toPath());
+             Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            log.warn("Unable to read {}: {}", file, e.getMessage());
+            return;
+        }
+
+        PropertiesPropertySource source = new PropertiesPropertySource(PROPERTY_SOURCE_NAME, properties);
+        if (environment.getPropertySources().contains(PROPERTY_SOURCE_NAME)) {
+            environment.getPropertySources().replace(PROPERTY_SOURCE_NAME, source);
+        } else {
+            environment.getPropertySources().addFirst(source);
+        }
+
+        Binder binder = Binder.get(environment);
+        for (Registration<?> registration : registrations) {
+            try {
+                registration.rebind(binder);
+                log.info("Reloaded {} from {}", registration.prefix, file);
+            } catch (RuntimeException e) {
+                log.warn("Unable to reload {} from {}: {}", registration.prefix, file, e.getMessage());
+            }
+        }
+    }
+
+    private static final class Registration<T> {
+
+        final String prefix;
+        final Class<T> type;
+        final Consumer<T> listener;
+
+        Registration(String prefix, Class<T> type, Consumer<T> listener) {
+            this.prefix = prefix;
+            this.type = type;
+            this.listener = listener;
+        }
+
+        void rebind(Binder binder) {
+            T value = binder.bind(prefix, type).orElseGet(() -> BeanUtils.instantiateClass(type));
+            listener.accept(value);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.ascendcorp.exam.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+// profile "faststart" เปิด spring.main.lazy-initialization ให้ bean ของ framework ที่ request แรกไม่ได้ใช้
+// (actuator endpoint, auto-configuration ที่ไม่ได้เรียก ฯลฯ) ไม่ถูกสร้างตอน start
+// bean ของ application เองยังสร้างตอน start เหมือนเดิม ไม่อย่างนั้น request แรกต้องรอสร้าง InquiryService และ gateway
+// แทน และ scheduler เบื้องหลัง (ConfigReloader, journal flusher) จะไม่เริ่มจนกว่าจะมีคนเรียก
+@Configuration
+@Profile("faststart")
+public class FastStartConfig {
+
+    private static final String APPLICATION_PACKAGE = "com.ascendcorp.exam.";
+
+    @Bean
+    public static LazyInitializationExcludeFilter applicationBeansEager() {
+        return (beanName, beanDefinition, beanType) ->
+                beanType != null && beanType.getName().startsWith(APPLICATION_PACKAGE);
+    }
+}
@@ -0,0 +1,56 @@
+package com.ascendcorp.exam.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// ใช้กับ HttpBankProxyGateway (profile "http") แต่ละธนาคารมี connection pool ของตัวเอง
+// ค่าที่ไม่ได้ตั้งในระดับธนาคารจะใช้ค่ารวม
+@Data
+@Component
+@ConfigurationProperties(prefix = "bank.http")
+public class HttpBankProperties {
+
+    private String path = "/inquiry";
+
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    private Duration responseTimeout = Duration.ofSeconds(5);
+
+    // ถ้าธนาคารไม่ส่ง Keep-Alive header มา จะเก็บ connection ไว้ใช้ซ้ำได้นานเท่านี้
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    // ปิด connection ที่ว่างนานเกินนี้ ก่อนฝั่งธนาคาร/load balancer จะตัดเอง
+    private Duration maxIdle = Duration.ofSeconds(20);
+
+    // อายุสูงสุดของ connection ให้ DNS / load balancer ที่เปลี่ยนมีผล
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    private int maxConnections = 50;
+
+    // เจรจา HTTP/2 ผ่าน ALPN (https เท่านั้น) ถ้าธนาคารไม่รองรับจะใช้ HTTP/1.1
+    private boolean http2 = true;
+
+    // I/O thread ต่อธนาคาร thread เดียวดูแลได้หลาย connection แบบ non-blocking
+    private int ioThreads = 1;
+
+    private Map<String, Bank> banks = new HashMap<>();
+
+    @Data
+    public static class Bank {
+
+        private String url;
+
+        private Integer maxConnections;
+
+        private Duration connectTimeout;
+
+        private Duration responseTimeout;
+
+        private Boolean http2;
+    }
+}
@@ -0,0 +1,32 @@
+package com.ascendcorp.exam.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+// journal ผล inquiry ทุกรายการสำหรับ audit / dispute (InquiryJournal)
+@Data
+@Component
+@ConfigurationProperties(prefix = "inquiry.journal")
+public class InquiryJournalProperties {
+
+    private boolean enabled = false;
+
+    private String directory = "journal";
+
+    // ขนาดไฟล์ segment จองไว้เต็มขนาดตอนสร้าง เต็มแล้วขึ้นไฟล์ใหม่ (ไม่เกิน 1GB)
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    // fsync รวมครั้งเดียวต่อรอบ record ที่เขียนในรอบนั้นทั้งหมด durable พร้อมกัน (group commit)
+    // process ตายไม่ทำให้ข้อมูลหาย (อยู่ใน page cache แล้ว) ที่เสี่ยงคือเครื่องดับก่อน fsync รอบถัดไป
+    private Duration flushInterval = Duration.ofMillis(10);
+
+    // เก็บ sparse index หนึ่ง entry ต่อจำนวน record นี้ (ตำแหน่ง, เวลา, bloom filter ของ tranId)
+    private int indexInterval = 64;
+
+    // segment ที่ seal แล้วและ record ล่าสุดเก่ากว่านี้ถูกส่งให้ JournalArchiver (ถ้ามี) แล้วลบ ตรวจทุกนาที 0 = เก็บตลอด
+    private Duration retention = Duration.ZERO;
+}
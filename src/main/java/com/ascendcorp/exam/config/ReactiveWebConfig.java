@@ -0,0 +1,18 @@
+package com.ascendcorp.exam.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Tomcat อยู่ใน classpath ด้วย (โหมด servlet) auto-config ของ reactive จะเลือก Tomcat ก่อน Netty
+// จึงประกาศ Netty ไว้เองเมื่อรันโหมด reactive
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,33 @@
+package com.ascendcorp.exam.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+// reconciliation แบบ offline จากไฟล์ (ReconciliationJob) รันด้วย profile "reconcile" ดู application-reconcile.properties
+@Data
+@Component
+@ConfigurationProperties(prefix = "inquiry.reconcile")
+public class ReconciliationProperties {
+
+    // ไฟล์ inquiry record แบบ NDJSON (หนึ่ง TransferResponse ต่อบรรทัด) หรือ CSV ที่มี header เป็นชื่อ field
+    private String input;
+
+    // ผลลัพธ์ NDJSON หนึ่งบรรทัดต่อ record ว่าง = <input>.result.ndjson
+    // checkpoint อยู่คู่กันที่ <output>.checkpoint
+    private String output;
+
+    // auto = ดูจากนามสกุลไฟล์ (.csv เป็น CSV นอกนั้น NDJSON)
+    private String format = "auto";
+
+    // ขนาด chunk ที่แบ่งไฟล์ไปประมวลผลขนานกัน (ตัดที่ขึ้นบรรทัดใหม่) และเป็นหน่วยของ checkpoint
+    // resume ได้เฉพาะเมื่อใช้ขนาดเดิม
+    private DataSize chunkSize = DataSize.ofMegabytes(8);
+
+    // จำนวน thread ของ fork-join pool 0 = จำนวน core
+    private int parallelism = 0;
+
+    // จำนวน call ไปธนาคารที่ค้างพร้อมกันได้ทั้ง job (แบ่งเท่าๆ กันให้ทุก chunk ที่ทำงานอยู่)
+    private int maxInFlight = 256;
+}
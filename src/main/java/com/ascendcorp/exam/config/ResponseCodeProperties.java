@@ -0,0 +1,58 @@
+package com.ascendcorp.exam.config;
+
+import lombok.Data;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// แมพ responseCode ของธนาคาร (ไม่สนตัวพิมพ์เล็กใหญ่) ไปยัง handler ที่ใช้แปลง description
+// เพิ่ม code ใหม่ได้ทาง config ไม่ต้อง release และโหลดใหม่ระหว่างรันได้ผ่าน ConfigReloader
+// key ที่มี "_" ต้องใส่วงเล็บเหลี่ยม เช่น inquiry.response-codes.codes.[partial_approved].handler=approved
+@Data
+@Component
+@ConfigurationProperties(prefix = "inquiry.response-codes")
+public class ResponseCodeProperties {
+
+    private Map<String, Mapping> codes = defaults();
+
+    @Data
+    public static class Mapping {
+
+        private Handler handler;
+
+        // ไม่ตั้งจะใช้ค่า default ของ handler
+        private String reasonCode;
+
+        private String reasonDesc;
+    }
+
+    // reasonCode / reasonDesc default คือค่าที่ใช้เมื่อ description จากธนาคารแยกไม่ได้ (approved ใช้ description จากธนาคารเสมอ)
+    @Getter
+    public enum Handler {
+        APPROVED("200", null),
+        INVALID_DATA("400", "General Invalid Data"),
+        TRANSACTION_ERROR("500", "General Transaction Error"),
+        UNKNOWN("501", "General Invalid Data");
+
+        private final String defaultReasonCode;
+        private final String defaultReasonDesc;
+
+        Handler(String defaultReasonCode, String defaultReasonDesc) {
+            this.defaultReasonCode = defaultReasonCode;
+            this.defaultReasonDesc = defaultReasonDesc;
+        }
+    }
+
+    private static Map<String, Mapping> defaults() {
+        Map<String, Mapping> codes = new LinkedHashMap<>();
+        for (Handler handler : Handler.values()) {
+            Mapping mapping = new Mapping();
+            mapping.setHandler(handler);
+            codes.put(handler.name().toLowerCase(), mapping);
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,67 @@
+package com.ascendcorp.exam.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// ใช้กับ SimulatedBankProxyGateway (profile "simulated") ค่าเริ่มต้นดูที่ application-simulated.properties
+@Data
+@Component
+@ConfigurationProperties(prefix = "bank.simulated")
+public class SimulatedBankProperties {
+
+    private Latency latency = new Latency();
+
+    private Mix mix = new Mix();
+
+    // % ของ response ที่ description ไม่มีรูปแบบ code:desc ให้ไปตก branch General ... ของ InquiryService
+    private double malformedDescriptionPercent = 1;
+
+    // % ของ call ที่ธนาคารไม่ตอบเลย (ค้างจนหมด timeout)
+    private double hangPercent = 0;
+
+    // call ที่ใช้เวลา (รวมเวลารอคิว) เกินนี้จะได้ BankTimeoutException
+    private Duration timeout = Duration.ofSeconds(5);
+
+    // จำนวน call ต่อวินาทีที่ธนาคารรับได้ เกินจากนี้ต้องรอคิว 0 = ไม่จำกัด
+    private int maxTps = 0;
+
+    private int schedulerThreads = 2;
+
+    public enum Distribution {
+        FIXED, NORMAL, PARETO
+    }
+
+    @Data
+    public static class Latency {
+
+        private Distribution distribution = Distribution.FIXED;
+
+        // FIXED ใช้ mean อย่างเดียว, NORMAL ใช้ mean และ stdDev
+        private Duration mean = Duration.ofMillis(50);
+
+        private Duration stdDev = Duration.ofMillis(10);
+
+        // PARETO: ค่าต่ำสุดคือ paretoScale, shape ยิ่งน้อย tail ยิ่งยาว (shape <= 2 คือ variance ไม่จำกัด)
+        private Duration paretoScale = Duration.ofMillis(20);
+
+        private double paretoShape = 1.5;
+
+        private Duration max = Duration.ofSeconds(30);
+    }
+
+    // น้ำหนักของ responseCode แต่ละแบบ ไม่จำเป็นต้องรวมกันได้ 100
+    @Data
+    public static class Mix {
+
+        private double approved = 85;
+
+        private double invalidData = 5;
+
+        private double transactionError = 7;
+
+        private double unknown = 3;
+    }
+}
@@ -0,0 +1,69 @@
+package com.ascendcorp.exam.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+// โหมด virtual thread (JDK 21 ขึ้นไป) เปิดด้วย inquiry.virtual-threads.enabled=true
+// Tomcat จะรันแต่ละ request รวมถึง call ไปธนาคารที่ block อยู่บน virtual thread ของตัวเอง
+// จำนวน request ที่รอธนาคารพร้อมกันจึงไม่ถูกจำกัดด้วย server.tomcat.threads.max (ยังจำกัดด้วย max-connections และ bulkhead ของแต่ละธนาคาร)
+// project ยัง build ด้วย Java 1.8 จึงเรียก API ของ virtual thread ผ่าน reflection ถ้า JDK ไม่รองรับจะใช้ platform thread ตามเดิม
+@Configuration
+@ConditionalOnProperty(prefix = "inquiry.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    final static Logger log = LogManager.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            ExecutorService executor = newVirtualThreadPerTaskExecutor("http-vt-");
+            if (executor == null) {
+                log.warn("inquiry.virtual-threads.enabled=true but virtual threads are not available on Java {}; "
+                        + "using platform threads", System.getProperty("java.version"));
+                return;
+            }
+            protocolHandler.setExecutor(executor);
+            log.info("Tomcat requests run on virtual threads");
+        };
+    }
+
+    public static boolean isSupported() {
+        return virtualThreadFactory("probe-") != null;
+    }
+
+    // Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 0).factory()) คืน null ถ้า JDK ไม่มี API นี้
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String namePrefix) {
+        ThreadFactory factory = virtualThreadFactory(namePrefix);
+        if (factory == null) {
+            return null;
+        }
+        try {
+            Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    public static ThreadFactory virtualThreadFactory(String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            // ไม่มี API (ก่อน JDK 21) หรือเป็น preview ที่ไม่ได้เปิด (JDK 19/20)
+            return null;
+        }
+    }
+}
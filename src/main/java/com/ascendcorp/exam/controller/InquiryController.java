@@ -1,21 +1,64 @@
 package com.ascendcorp.exam.controller;
 
+import com.ascendcorp.exam.model.InquiryBatchItemDTO;
 import com.ascendcorp.exam.model.InquiryServiceResultDTO;
 import com.ascendcorp.exam.model.TransferResponse;
 import com.ascendcorp.exam.service.InquiryService;
+import com.ascendcorp.exam.service.InquiryStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/inquiry")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class InquiryController {
 
     @Autowired
     private InquiryService inquiryService;
 
+    @Autowired
+    private InquiryStreamService inquiryStreamService;
+
+    @Value("${inquiry.batch.max-size:10000}")
+    private int batchMaxSize;
+
     @PostMapping("/transaction")
-    public InquiryServiceResultDTO inquireTransaction(@RequestBody TransferResponse transferResponse) {
+    public CompletableFuture<InquiryServiceResultDTO> inquireTransaction(@RequestBody TransferResponse transferResponse) {
+
+        return inquiryService.inquiryAsync(transferResponse);
+    }
+
+    @PostMapping("/transactions")
+    public List<InquiryBatchItemDTO> inquireTransactions(@RequestBody List<TransferResponse> transferResponses) {
+
+        if (transferResponses.size() > batchMaxSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Batch size must not exceed " + batchMaxSize);
+        }
+        return inquiryService.inquiryBatch(transferResponses);
+    }
+
+    @PostMapping(value = "/transactions/stream", produces = "application/x-ndjson")
+    public void inquireTransactionStream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        response.setContentType("application/x-ndjson");
+        inquiryStreamService.inquiryStream(request.getInputStream(), response.getOutputStream());
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Long> stats() {
 
-        return inquiryService.inquiry(transferResponse);
+        return inquiryService.stats();
     }
 }
@@ -0,0 +1,22 @@
+package com.ascendcorp.exam.controller;
+
+import com.ascendcorp.exam.model.ValidationErrorDTO;
+import com.ascendcorp.exam.service.RequestValidationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class InquiryExceptionHandler {
+
+    @ExceptionHandler(RequestValidationException.class)
+    public ResponseEntity<ValidationErrorDTO> handleValidation(RequestValidationException e) {
+
+        ValidationErrorDTO error = new ValidationErrorDTO();
+        error.setReasonCode("400");
+        error.setReasonDesc("Invalid request");
+        error.setErrors(e.getViolations());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ascendcorp.exam.controller;
+
+import com.ascendcorp.exam.model.InquiryBatchItemDTO;
+import com.ascendcorp.exam.model.InquiryServiceResultDTO;
+import com.ascendcorp.exam.model.TransferResponse;
+import com.ascendcorp.exam.service.InquiryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// endpoint เดียวกับ InquiryController สำหรับโหมด WebFlux/Netty (spring.main.web-application-type=reactive)
+// ทุก endpoint ไม่ block event loop: ผลจากธนาคารมาจาก requestTransferAsync ผ่าน Mono.fromFuture
+@RestController
+@RequestMapping("/inquiry")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveInquiryController {
+
+    @Autowired
+    private InquiryService inquiryService;
+
+    @Value("${inquiry.batch.max-size:10000}")
+    private int batchMaxSize;
+
+    @Value("${inquiry.batch.parallelism:16}")
+    private int batchParallelism;
+
+    @PostMapping("/transaction")
+    public Mono<InquiryServiceResultDTO> inquireTransaction(@RequestBody TransferResponse transferResponse) {
+
+        return Mono.fromFuture(() -> inquiryService.inquiryAsync(transferResponse));
+    }
+
+    @PostMapping("/transactions")
+    public Mono<List<InquiryBatchItemDTO>> inquireTransactions(@RequestBody List<TransferResponse> transferResponses) {
+
+        if (transferResponses.size() > batchMaxSize) {
+            return Mono.error(new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Batch size must not exceed " + batchMaxSize));
+        }
+        return inquiryItems(Flux.fromIterable(transferResponses)).collectList();
+    }
+
+    // record ที่ map เป็น TransferResponse ไม่ได้จะจบ stream ด้วย error (decoder ของ WebFlux ไม่ข้าม record ให้เหมือนโหมด servlet)
+    @PostMapping(value = "/transactions/stream", consumes = "application/x-ndjson", produces = "application/x-ndjson")
+    public Flux<InquiryBatchItemDTO> inquireTransactionStream(@RequestBody Flux<TransferResponse> transferResponses) {
+
+        return inquiryItems(transferResponses);
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Long> stats() {
+
+        return inquiryService.stats();
+    }
+
+    // ยิงพร้อมกันไม่เกิน batchParallelism รายการ ผลลัพธ์เรียงตามลำดับของ request
+    private Flux<InquiryBatchItemDTO> inquiryItems(Flux<TransferResponse> transferResponses) {
+        AtomicInteger index = new AtomicInteger();
+        return transferResponses.flatMapSequential(transferResponse -> {
+            int i = index.getAndIncrement();
+            return Mono.fromFuture(() -> inquiryService.inquiryItemAsync(i, transferResponse));
+        }, batchParallelism);
+    }
+}
@@ -0,0 +1,460 @@
+package com.ascendcorp.exam.journal;
+
+import com.ascendcorp.exam.config.InquiryJournalProperties;
+import com.ascendcorp.exam.model.InquiryServiceResultDTO;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// journal แบบ append-only ของผล inquiry ทุกรายการ (audit / dispute) เขียนเป็น binary record ลงไฟล์ segment ที่ map ไว้
+// append แค่ encode ลงหน่วยความจำภายใต้ lock สั้นๆ ไม่มี system call ไม่รอ disk
+// fsync ทำใน thread แยกทุก flushInterval ครั้งเดียวสำหรับทุก record ในรอบนั้น (group commit)
+// segment เต็มแล้วขึ้นไฟล์สำรองที่ flush thread สร้างและ map ไว้ล่วงหน้า (append ไม่ต้องรอสร้างไฟล์)
+// ไฟล์เก่าถูก fsync และ seal (เขียน index ลงไฟล์ เลิก map) ในรอบถัดไป เก็บไว้อ่านอย่างเดียวจนหมด retention
+// อ่านย้อนหลังได้ตามช่วงเวลา (scan) หรือตาม tranId (find) โดยใช้ sparse index ข้าม block ที่ไม่เกี่ยว
+// ปิดอยู่ (ค่าเริ่มต้น) append ไม่ทำอะไร
+@Component
+public class InquiryJournal {
+
+    final static Logger log = LogManager.getLogger(InquiryJournal.class);
+
+    private final boolean enabled;
+    private final File directory;
+    private final int segmentSize;
+    private final int indexInterval;
+    private final Duration retention;
+    private JournalArchiver archiver;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CRC32 crc = new CRC32();
+    private final List<JournalSegment> segments = new ArrayList<>();
+    private final List<JournalSegment> unflushed = new ArrayList<>();
+    private JournalSegment active;
+    private JournalSegment spare;
+    // sequence ของไฟล์สำรองที่ flush thread กำลังสร้าง (-1 = ไม่มี) roll ที่ไม่มีไฟล์สำรองต้องข้ามเลขนี้
+    private long preparing = -1;
+    private boolean dirty;
+    private ScheduledExecutorService flusher;
+    // retention แยก thread จาก flush archiver ที่ช้า (เช่น upload) จะไม่หน่วง fsync
+    private ScheduledExecutorService retirer;
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder unpreparedRolls = new LongAdder();
+    private final LongAdder retired = new LongAdder();
+
+    public InquiryJournal() {
+        this(new InquiryJournalProperties());
+    }
+
+    @Autowired
+    public InquiryJournal(InquiryJournalProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.directory = new File(properties.getDirectory());
+        this.segmentSize = (int) Math.min(properties.getSegmentSize().toBytes(), 1L << 30);
+        this.indexInterval = Math.max(1, properties.getIndexInterval());
+        this.retention = properties.getRetention();
+        if (segmentSize < JournalSegment.HEADER_SIZE + RecordCodec.MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("inquiry.journal.segment-size must be at least "
+                    + (JournalSegment.HEADER_SIZE + RecordCodec.MAX_RECORD_SIZE) + " bytes");
+        }
+        if (!enabled) {
+            return;
+        }
+
+        open();
+        long intervalMicros = Math.max(1, properties.getFlushInterval().toNanos() / 1000);
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "inquiry-journal-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMicros, intervalMicros, TimeUnit.MICROSECONDS);
+        if (retention != null && !retention.isZero()) {
+            retirer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "inquiry-journal-retention");
+                thread.setDaemon(true);
+                return thread;
+            });
+            retirer.scheduleWithFixedDelay(this::retireQuietly, 1, 1, TimeUnit.MINUTES);
+        }
+        log.info("Inquiry journal at {} segments={} segmentSize={} flushInterval={} retention={}",
+                directory.getAbsolutePath(), segments.size(), segmentSize, properties.getFlushInterval(), retention);
+    }
+
+    @Autowired(required = false)
+    public void setArchiver(JournalArchiver archiver) {
+        this.archiver = archiver;
+    }
+
+    private void open() {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalStateException("Unable to create journal directory " + directory.getAbsolutePath());
+        }
+        File[] files = directory.listFiles(JournalSegment::isSegmentFile);
+        Arrays.sort(files, Comparator.comparingLong(JournalSegment::sequenceOf));
+        try {
+            for (File file : files) {
+                segments.add(JournalSegment.open(file, indexInterval));
+            }
+            // ไฟล์สุดท้ายว่างต่อจาก segment ที่ยังไม่ seal = ไฟล์สำรองที่สร้างไว้ก่อนปิด ใช้ต่อเป็นไฟล์สำรอง
+            int last = segments.size() - 1;
+            if (last > 0 && !segments.get(last).isSealed() && segments.get(last).isEmpty() && !segments.get(last - 1).isSealed()) {
+                spare = segments.remove(last);
+            }
+            if (segments.isEmpty() || segments.get(segments.size() - 1).isSealed()) {
+                long sequence = segments.isEmpty() ? 0 : segments.get(segments.size() - 1).getSequence() + 1;
+                segments.add(JournalSegment.create(directory, sequence, segmentSize, indexInterval));
+            }
+            active = segments.get(segments.size() - 1);
+            // segment ที่ไม่ได้ seal เพราะเครื่องดับหลัง roll ไล่อ่านไปแล้วตอน open seal ตอนนี้ครั้งถัดไปจะไม่ต้องอ่านอีก
+            for (JournalSegment segment : segments) {
+                if (segment != active && !segment.isSealed()) {
+                    segment.force();
+                    segment.writeIndex();
+                    segment.seal();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open journal " + directory.getAbsolutePath(), e);
+        }
+    }
+
+    // เรียกจาก InquiryService ทุก inquiry ที่ได้ผลลัพธ์ เขียนไม่สำเร็จ (เช่น disk เต็ม) นับเป็น failed แต่ไม่ทำให้ inquiry ล้ม
+    public void append(InquiryServiceResultDTO result) {
+        if (!enabled || result == null) {
+            return;
+        }
+        int size = RecordCodec.encodedSize(result);
+        lock.lock();
+        try {
+            if (!active.hasRoom(size)) {
+                roll();
+            }
+            // เวลาอ่านภายใต้ lock เรียงตามลำดับการเขียน (ยกเว้นนาฬิกาเครื่องถอยหลัง)
+            active.append(System.currentTimeMillis(), result, size, crc);
+            dirty = true;
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            log.warn("Unable to journal inquiry {}: {}", result.getTranID(), e.getMessage());
+            return;
+        } finally {
+            lock.unlock();
+        }
+        appended.increment();
+        bytes.add(size);
+    }
+
+    // ปกติใช้ไฟล์สำรองที่ map ไว้แล้ว สร้างไฟล์เองใน lock เฉพาะตอนที่ flush thread ยังเตรียมไม่ทัน
+    private void roll() throws IOException {
+        JournalSegment next = spare;
+        spare = null;
+        if (next == null) {
+            next = JournalSegment.create(directory, Math.max(active.getSequence(), preparing) + 1, segmentSize, indexInterval);
+            unpreparedRolls.increment();
+        }
+        unflushed.add(active);
+        segments.add(next);
+        active = next;
+        log.info("Inquiry journal rolled to {}", next.getFile().getName());
+    }
+
+    // fsync ทุก segment ที่มีข้อมูลใหม่ตั้งแต่รอบที่แล้ว force() อยู่นอก lock ไม่บล็อกคนเขียน
+    // segment ที่ roll ออกไปแล้วถูก seal ต่อจาก force
+    public void flush() {
+        List<JournalSegment> toForce;
+        List<JournalSegment> rolled;
+        lock.lock();
+        try {
+            if (!dirty && unflushed.isEmpty()) {
+                return;
+            }
+            rolled = new ArrayList<>(unflushed);
+            unflushed.clear();
+            toForce = new ArrayList<>(rolled);
+            if (dirty) {
+                toForce.add(active);
+                dirty = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (JournalSegment segment : toForce) {
+            segment.force();
+        }
+        flushes.increment();
+        for (JournalSegment segment : rolled) {
+            seal(segment);
+        }
+    }
+
+    private void seal(JournalSegment segment) {
+        try {
+            segment.writeIndex();
+        } catch (IOException e) {
+            // ยังไม่ seal ใส่กลับไปลองใหม่รอบหน้า
+            log.warn("Unable to write index for journal segment {}: {}", segment.getFile().getName(), e.getMessage());
+            lock.lock();
+            try {
+                unflushed.add(segment);
+            } finally {
+                lock.unlock();
+            }
+            return;
+        }
+        lock.lock();
+        try {
+            segment.seal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // สร้างและ map ไฟล์ segment ถัดไปไว้ก่อนใน flush thread ถ้ามีคน roll ไปก่อนสร้างเสร็จ ไฟล์ที่สร้างเลขเก่าไปแล้ว ลบทิ้ง
+    void prepareSpare() {
+        long sequence;
+        lock.lock();
+        try {
+            if (spare != null) {
+                return;
+            }
+            sequence = active.getSequence() + 1;
+            preparing = sequence;
+        } finally {
+            lock.unlock();
+        }
+        JournalSegment created = null;
+        try {
+            created = JournalSegment.create(directory, sequence, segmentSize, indexInterval);
+        } catch (IOException e) {
+            log.warn("Unable to prepare journal segment {}: {}", sequence, e.getMessage());
+        } finally {
+            lock.lock();
+            try {
+                preparing = -1;
+                if (created != null && created.getSequence() > active.getSequence()) {
+                    spare = created;
+                    created = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (created != null && !created.getFile().delete()) {
+            log.warn("Unable to delete stale journal segment {}", created.getFile().getName());
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+            prepareSpare();
+        } catch (RuntimeException e) {
+            log.warn("Unable to flush inquiry journal: {}", e.getMessage());
+        }
+    }
+
+    // segment ที่ seal แล้วและ record ล่าสุดก่อน beforeMillis ส่งให้ archiver (ถ้ามี) แล้วลบ ไล่จากเก่าสุด หยุดที่ segment แรกที่ยังไม่หมดอายุ
+    // คนที่กำลังอ่าน segment ที่ถูกลบอยู่อ่านต่อจาก mapping เดิมได้ snapshot ที่ยังไม่ได้ map จะข้าม segment นั้นไป
+    // คืนจำนวน segment ที่ลบ
+    public int retire(long beforeMillis) {
+        List<JournalSegment> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            for (JournalSegment segment : segments) {
+                if (!segment.isSealed() || segment.getLastTimestamp() >= beforeMillis) {
+                    break;
+                }
+                expired.add(segment);
+            }
+        } finally {
+            lock.unlock();
+        }
+        int count = 0;
+        for (JournalSegment segment : expired) {
+            try {
+                if (archiver != null) {
+                    archiver.archive(segment.getFile(), segment.getIndexFile());
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Unable to archive journal segment {}: {}", segment.getFile().getName(), e.getMessage());
+                break;
+            }
+            lock.lock();
+            try {
+                segments.remove(segment);
+            } finally {
+                lock.unlock();
+            }
+            try {
+                // index ลบหลังสุด ถ้าลบไม่ครบ ครั้งหน้าเปิดเจอ segment ที่ไม่มี index จะไล่อ่านแทน ไม่เจอ index ลอยๆ
+                Files.deleteIfExists(segment.getFile().toPath());
+                Files.deleteIfExists(segment.getIndexFile().toPath());
+            } catch (IOException e) {
+                log.warn("Unable to delete journal segment {}: {}", segment.getFile().getName(), e.getMessage());
+            }
+            retired.increment();
+            count++;
+            log.info("Inquiry journal retired {}", segment.getFile().getName());
+        }
+        return count;
+    }
+
+    private void retireQuietly() {
+        try {
+            retire(System.currentTimeMillis() - retention.toMillis());
+        } catch (RuntimeException e) {
+            log.warn("Unable to retire inquiry journal segments: {}", e.getMessage());
+        }
+    }
+
+    // อ่านทุก record ที่ timestamp อยู่ใน [fromMillis, toMillis) ตามลำดับการเขียน
+    public void scan(long fromMillis, long toMillis, Consumer<JournalRecord> consumer) {
+        CRC32 readCrc = new CRC32();
+        for (JournalSegment.Snapshot segment : snapshots()) {
+            if (segment.blocks.length == 0 || segment.lastTimestamp < fromMillis || segment.firstTimestamp >= toMillis) {
+                continue;
+            }
+            for (int b = firstBlock(segment, fromMillis); b < segment.blocks.length; b++) {
+                if (segment.blocks[b].timestamp >= toMillis) {
+                    break;
+                }
+                ByteBuffer buffer = segment.buffer();
+                if (buffer == null) {
+                    break;
+                }
+                int end = segment.blockEnd(b);
+                for (int offset = segment.blocks[b].offset; offset < end; ) {
+                    int size = RecordCodec.recordSize(buffer, offset, end, readCrc);
+                    if (size == 0) {
+                        break;
+                    }
+                    long timestamp = RecordCodec.timestamp(buffer, offset);
+                    if (timestamp >= fromMillis && timestamp < toMillis) {
+                        consumer.accept(RecordCodec.decode(buffer, offset));
+                    }
+                    offset += size;
+                }
+            }
+        }
+    }
+
+    public void replay(Consumer<JournalRecord> consumer) {
+        scan(Long.MIN_VALUE, Long.MAX_VALUE, consumer);
+    }
+
+    // ทุก record ของ tranId นี้ (inquiry ซ้ำได้หลายครั้ง) อ่านเฉพาะ block ที่ bloom filter บอกว่าอาจมี
+    public List<JournalRecord> find(String tranId) {
+        if (tranId == null) {
+            throw new IllegalArgumentException("tranId must not be null");
+        }
+        List<JournalRecord> found = new ArrayList<>();
+        CRC32 readCrc = new CRC32();
+        for (JournalSegment.Snapshot segment : snapshots()) {
+            for (int b = 0; b < segment.blocks.length; b++) {
+                if (!segment.blocks[b].mightContain(tranId)) {
+                    continue;
+                }
+                ByteBuffer buffer = segment.buffer();
+                if (buffer == null) {
+                    break;
+                }
+                int end = segment.blockEnd(b);
+                for (int offset = segment.blocks[b].offset; offset < end; ) {
+                    int size = RecordCodec.recordSize(buffer, offset, end, readCrc);
+                    if (size == 0) {
+                        break;
+                    }
+                    if (tranId.equals(RecordCodec.tranId(buffer, offset))) {
+                        found.add(RecordCodec.decode(buffer, offset));
+                    }
+                    offset += size;
+                }
+            }
+        }
+        return found;
+    }
+
+    // block สุดท้ายที่เริ่มก่อน fromMillis (record ท้าย block นั้นอาจถึง fromMillis แล้ว) block ก่อนหน้านั้นจบก่อน fromMillis ทั้งหมด
+    private static int firstBlock(JournalSegment.Snapshot segment, long fromMillis) {
+        int low = 0;
+        int high = segment.blocks.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (segment.blocks[mid].timestamp < fromMillis) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private List<JournalSegment.Snapshot> snapshots() {
+        List<JournalSegment.Snapshot> snapshots = new ArrayList<>();
+        if (!enabled) {
+            return snapshots;
+        }
+        lock.lock();
+        try {
+            for (JournalSegment segment : segments) {
+                snapshots.add(segment.snapshot());
+            }
+        } finally {
+            lock.unlock();
+        }
+        return snapshots;
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("journal.appended", appended.sum());
+        stats.put("journal.failed", failed.sum());
+        stats.put("journal.bytes", bytes.sum());
+        stats.put("journal.flushes", flushes.sum());
+        stats.put("journal.unprepared-rolls", unpreparedRolls.sum());
+        stats.put("journal.retired", retired.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (retirer != null) {
+            retirer.shutdownNow();
+        }
+        if (flusher != null) {
+            // ไม่ interrupt รอบที่กำลังทำอยู่ (map / force ไฟล์ถูก interrupt แล้ว channel ปิด) รอให้จบก่อน
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flush();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.ascendcorp.exam.journal;
+
+import java.io.File;
+import java.io.IOException;
+
+// ที่เก็บ segment ที่หมดอายุตาม inquiry.journal.retention ก่อน InquiryJournal ลบไฟล์ทิ้ง (เช่น copy ขึ้น object storage)
+// ประกาศเป็น bean แล้ว InquiryJournal จะใช้เอง ไม่มี bean = ลบอย่างเดียว
+// เรียกจาก thread ของ retention (ไม่ใช่ flush thread ช้าได้) ทีละ segment เก่าสุดก่อน segment ถูก seal แล้วไม่มีใครเขียนอีก
+// โยน exception = ยังไม่ลบ segment นั้นและที่ใหม่กว่า ลองใหม่รอบถัดไป
+@FunctionalInterface
+public interface JournalArchiver {
+
+    void archive(File segment, File index) throws IOException;
+}
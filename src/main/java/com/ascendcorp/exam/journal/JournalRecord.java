@@ -0,0 +1,17 @@
+package com.ascendcorp.exam.journal;
+
+import com.ascendcorp.exam.model.InquiryServiceResultDTO;
+import lombok.Getter;
+
+// หนึ่งรายการที่อ่านกลับจาก journal
+@Getter
+public class JournalRecord {
+
+    private final long timestamp;
+    private final InquiryServiceResultDTO result;
+
+    public JournalRecord(long timestamp, InquiryServiceResultDTO result) {
+        this.timestamp = timestamp;
+        this.result = result;
+    }
+}
@@ -0,0 +1,361 @@
+package com.ascendcorp.exam.journal;
+
+import com.ascendcorp.exam.model.InquiryServiceResultDTO;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// ไฟล์ journal หนึ่งไฟล์ จองขนาดเต็มแล้ว map ทั้งไฟล์ครั้งเดียว การเขียนเป็นแค่การ copy ลงหน่วยความจำ
+// มี sparse index ในหน่วยความจำ: หนึ่ง block ต่อ indexInterval record เก็บตำแหน่งเริ่ม, เวลาของ record แรก
+// และ bloom filter ของ tranId ใน block ใช้ข้าม block ที่ไม่เกี่ยวตอนค้นตามเวลาหรือ tranId
+// ต้นไฟล์มี header: int magic | int version ของรูปแบบ record (RecordCodec) | ว่างไว้ 8 byte record เริ่มหลัง header
+// segment ที่เต็มแล้วถูก seal: เขียน index ลงไฟล์ข้างกัน (.index) แล้วเลิก map แบบเขียนได้
+// ตอนอ่าน segment ที่ seal แล้วจะ map แบบ READ_ONLY เฉพาะตอนที่ index บอกว่าต้องอ่าน และปล่อยเมื่ออ่านเสร็จ
+// เปิดไฟล์เดิมตอน start ตรวจ header ก่อน ถ้ามี .index ที่ถูกต้องโหลด index อย่างเดียวไม่ map ไม่ไล่อ่าน
+// ไม่มี (segment ที่ยังเขียนอยู่ หรือเครื่องดับก่อน seal) ไล่อ่าน record ที่ crc ถูกต้องเพื่อหาจุดเขียนต่อและสร้าง index ใหม่
+// การเขียนและแก้ index ทำภายใต้ lock ของ InquiryJournal
+final class JournalSegment {
+
+    private static final String SUFFIX = ".journal";
+    private static final String INDEX_SUFFIX = ".index";
+
+    // "INQJ"
+    static final int MAGIC = 0x494E514A;
+    // 1 = amount / balance เป็น long หน่วยย่อยของ Amount
+    // ไฟล์ที่เขียนก่อนมี header (amount เป็น double) ไม่มี magic จึงถูกปฏิเสธไม่ถูกอ่านผิด
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    // "INQI" ไฟล์ index มี crc32 ของทั้งไฟล์ต่อท้าย
+    private static final int INDEX_MAGIC = 0x494E5149;
+
+    private final long sequence;
+    private final File file;
+    private final int indexInterval;
+    // null เมื่อ seal แล้ว
+    private MappedByteBuffer buffer;
+    private boolean sealed;
+
+    private final List<IndexBlock> blocks = new ArrayList<>();
+    private int writeOffset;
+    private int records;
+    private long firstTimestamp = Long.MAX_VALUE;
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    private JournalSegment(long sequence, File file, int indexInterval) {
+        this.sequence = sequence;
+        this.file = file;
+        this.indexInterval = indexInterval;
+    }
+
+    static JournalSegment create(File directory, long sequence, int size, int indexInterval) throws IOException {
+        File file = new File(directory, String.format("%020d%s", sequence, SUFFIX));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(size);
+            JournalSegment segment = new JournalSegment(sequence, file, indexInterval);
+            segment.buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            segment.buffer.putInt(0, MAGIC);
+            segment.buffer.putInt(4, FORMAT_VERSION);
+            segment.writeOffset = HEADER_SIZE;
+            return segment;
+        }
+    }
+
+    static JournalSegment open(File file, int indexInterval) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            checkHeader(file, raf);
+        }
+        JournalSegment segment = new JournalSegment(sequenceOf(file), file, indexInterval);
+        if (!segment.readIndex()) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                segment.buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length());
+            }
+            segment.recover();
+        }
+        return segment;
+    }
+
+    static boolean isSegmentFile(File file) {
+        return file.isFile() && file.getName().endsWith(SUFFIX) && sequenceOf(file) >= 0;
+    }
+
+    static long sequenceOf(File file) {
+        String name = file.getName();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    // ไม่ข้ามไฟล์ที่อ่านไม่ได้เงียบๆ (ข้อมูล audit หาย) ให้ start ไม่ขึ้นพร้อมบอกว่าไฟล์ไหน ต้องย้ายออกหรือแปลงก่อน
+    private static void checkHeader(File file, RandomAccessFile raf) throws IOException {
+        int magic = raf.length() >= HEADER_SIZE ? raf.readInt() : 0;
+        if (magic != MAGIC) {
+            throw new IllegalStateException("Journal segment " + file.getAbsolutePath()
+                    + " has no segment header (written by an older version?); move it out of the journal directory");
+        }
+        int version = raf.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalStateException("Journal segment " + file.getAbsolutePath() + " has format version " + version
+                    + ", expected " + FORMAT_VERSION + "; move it out of the journal directory");
+        }
+    }
+
+    private void recover() {
+        CRC32 crc = new CRC32();
+        int offset = HEADER_SIZE;
+        int size;
+        while ((size = RecordCodec.recordSize(buffer, offset, buffer.capacity(), crc)) > 0) {
+            indexed(offset, RecordCodec.timestamp(buffer, offset), RecordCodec.tranId(buffer, offset));
+            offset += size;
+        }
+        writeOffset = offset;
+    }
+
+    boolean hasRoom(int recordSize) {
+        return !sealed && buffer.capacity() - writeOffset >= recordSize;
+    }
+
+    void append(long timestamp, InquiryServiceResultDTO result, int recordSize, CRC32 crc) {
+        int offset = writeOffset;
+        RecordCodec.encode(buffer, offset, timestamp, result, crc);
+        indexed(offset, timestamp, result.getTranID());
+        writeOffset = offset + recordSize;
+    }
+
+    private void indexed(int offset, long timestamp, String tranId) {
+        if (records % indexInterval == 0) {
+            blocks.add(new IndexBlock(offset, timestamp));
+        }
+        blocks.get(blocks.size() - 1).add(tranId);
+        records++;
+        firstTimestamp = Math.min(firstTimestamp, timestamp);
+        lastTimestamp = Math.max(lastTimestamp, timestamp);
+    }
+
+    // สำเนาสถานะ ณ ตอนนี้สำหรับอ่าน เรียกภายใต้ lock ของ InquiryJournal
+    // block สุดท้ายยังถูก add ต่อหลังปล่อย lock จึง copy bloom filter ของมัน block ก่อนหน้าไม่เปลี่ยนแล้วใช้ตัวเดิมได้
+    // segment ที่ seal แล้วไม่มีอะไรเปลี่ยน ไม่ต้อง copy และยังไม่ map จนกว่าจะมีคนอ่าน
+    Snapshot snapshot() {
+        IndexBlock[] snapshot = blocks.toArray(new IndexBlock[0]);
+        if (sealed) {
+            return new Snapshot(file, null, snapshot, writeOffset, firstTimestamp, lastTimestamp);
+        }
+        if (snapshot.length > 0) {
+            snapshot[snapshot.length - 1] = snapshot[snapshot.length - 1].copy();
+        }
+        return new Snapshot(file, buffer.duplicate(), snapshot, writeOffset, firstTimestamp, lastTimestamp);
+    }
+
+    void force() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    // เขียน index ลง .index ผ่านไฟล์ชั่วคราวแล้ว rename ไฟล์ index ที่เห็นจึงสมบูรณ์เสมอ
+    // เรียกหลัง force() ของ segment ที่ไม่มีใครเขียนต่อแล้ว อยู่นอก lock ได้เพราะ index ไม่เปลี่ยนอีก
+    void writeIndex() throws IOException {
+        File index = getIndexFile();
+        File tmp = new File(index.getPath() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileOutputStream fileOut = new FileOutputStream(tmp)) {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(fileOut), crc));
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(sequence);
+            out.writeInt(writeOffset);
+            out.writeInt(records);
+            out.writeLong(firstTimestamp);
+            out.writeLong(lastTimestamp);
+            out.writeInt(blocks.size());
+            for (IndexBlock block : blocks) {
+                out.writeInt(block.offset);
+                out.writeLong(block.timestamp);
+                for (long bits : block.bloom) {
+                    out.writeLong(bits);
+                }
+            }
+            out.flush();
+            new DataOutputStream(fileOut).writeLong(crc.getValue());
+            fileOut.getFD().sync();
+        }
+        Files.move(tmp.toPath(), index.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // หลัง writeIndex สำเร็จ เรียกภายใต้ lock ของ InquiryJournal ทิ้ง mapping แบบเขียนได้ (GC เป็นคน unmap)
+    void seal() {
+        sealed = true;
+        buffer = null;
+    }
+
+    // false = ไม่มี .index หรืออ่านไม่ได้ (ไม่ครบ, crc ไม่ตรง, คนละ segment) ให้ไล่อ่าน segment แทน
+    private boolean readIndex() {
+        File index = getIndexFile();
+        if (!index.isFile()) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(new FileInputStream(index)), crc))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != FORMAT_VERSION || in.readLong() != sequence) {
+                return false;
+            }
+            int end = in.readInt();
+            int count = in.readInt();
+            long first = in.readLong();
+            long last = in.readLong();
+            int blockCount = in.readInt();
+            List<IndexBlock> loaded = new ArrayList<>(Math.max(0, blockCount));
+            for (int i = 0; i < blockCount; i++) {
+                IndexBlock block = new IndexBlock(in.readInt(), in.readLong());
+                for (int w = 0; w < block.bloom.length; w++) {
+                    block.bloom[w] = in.readLong();
+                }
+                loaded.add(block);
+            }
+            long expected = crc.getValue();
+            if (in.readLong() != expected || in.read() != -1) {
+                return false;
+            }
+            blocks.addAll(loaded);
+            writeOffset = end;
+            records = count;
+            firstTimestamp = first;
+            lastTimestamp = last;
+            sealed = true;
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    boolean isEmpty() {
+        return records == 0;
+    }
+
+    long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    File getIndexFile() {
+        return new File(file.getParentFile(), String.format("%020d%s", sequence, INDEX_SUFFIX));
+    }
+
+    static final class IndexBlock {
+
+        // 512 bit, hash 3 ตัว ต่อ 64 record false positive ประมาณ 3%
+        private static final int BLOOM_BITS = 512;
+
+        final int offset;
+        final long timestamp;
+        private final long[] bloom = new long[BLOOM_BITS / 64];
+
+        IndexBlock(int offset, long timestamp) {
+            this.offset = offset;
+            this.timestamp = timestamp;
+        }
+
+        IndexBlock copy() {
+            IndexBlock copy = new IndexBlock(offset, timestamp);
+            System.arraycopy(bloom, 0, copy.bloom, 0, bloom.length);
+            return copy;
+        }
+
+        void add(String tranId) {
+            int h = hash(tranId);
+            int h2 = (h >>> 16) | 1;
+            for (int i = 0; i < 3; i++) {
+                int bit = (h + i * h2) & (BLOOM_BITS - 1);
+                bloom[bit >>> 6] |= 1L << bit;
+            }
+        }
+
+        boolean mightContain(String tranId) {
+            int h = hash(tranId);
+            int h2 = (h >>> 16) | 1;
+            for (int i = 0; i < 3; i++) {
+                int bit = (h + i * h2) & (BLOOM_BITS - 1);
+                if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int hash(String tranId) {
+            int h = tranId != null ? tranId.hashCode() * 0x9E3779B9 : 0;
+            return h ^ (h >>> 15);
+        }
+    }
+
+    static final class Snapshot {
+
+        private final File file;
+        private ByteBuffer buffer;
+        final IndexBlock[] blocks;
+        final int end;
+        final long firstTimestamp;
+        final long lastTimestamp;
+
+        Snapshot(File file, ByteBuffer buffer, IndexBlock[] blocks, int end, long firstTimestamp, long lastTimestamp) {
+            this.file = file;
+            this.buffer = buffer;
+            this.blocks = blocks;
+            this.end = end;
+            this.firstTimestamp = firstTimestamp;
+            this.lastTimestamp = lastTimestamp;
+        }
+
+        // segment ที่ seal แล้ว map READ_ONLY ถึง end ตอนอ่านครั้งแรก mapping อยู่เท่าอายุของ snapshot
+        // null = ไฟล์ถูก retire ไปแล้วหลังจากถ่าย snapshot
+        ByteBuffer buffer() {
+            if (buffer == null) {
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, end);
+                } catch (NoSuchFileException e) {
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Unable to read journal segment " + file.getAbsolutePath(), e);
+                }
+            }
+            return buffer;
+        }
+
+        int blockEnd(int block) {
+            return block + 1 < blocks.length ? blocks[block + 1].offset : end;
+        }
+    }
+}
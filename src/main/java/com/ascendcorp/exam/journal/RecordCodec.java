@@ -0,0 +1,218 @@
+package com.ascendcorp.exam.journal;
+
+import com.ascendcorp.exam.model.Amount;
+import com.ascendcorp.exam.model.InquiryServiceResultDTO;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+// รูปแบบ record ใน segment (big endian):
+//   int length (ทั้ง record รวม header) | int crc32 ของ payload | long timestamp
+//   | long balance | long amount (หน่วยย่อยของ Amount, Long.MIN_VALUE = null) | string x 7
+// string = unsigned short จำนวน byte (0xFFFF = null) ตามด้วย UTF-8
+// length 0 = ท้ายข้อมูลของ segment (ไฟล์จองไว้เป็นศูนย์ทั้งไฟล์) crc ไม่ตรง = เขียนไม่จบตอนเครื่องดับ ถือเป็นท้ายข้อมูลเช่นกัน
+// เขียนลง buffer ตรงๆ ทีละตัวอักษร ไม่สร้าง byte[] ต่อ record
+final class RecordCodec {
+
+    static final int HEADER_SIZE = 8;
+    static final int MIN_RECORD_SIZE = HEADER_SIZE + 8 + 8 + 8;
+
+    // string ที่ยาวกว่านี้ถูกตัด (reasonDesc จากธนาคารไม่ควรยาวขนาดนี้)
+    static final int MAX_STRING_BYTES = 0xFFFE;
+    private static final int NULL_LENGTH = 0xFFFF;
+    private static final long NULL_AMOUNT = Long.MIN_VALUE;
+
+    private static final int FIELDS = 7;
+    static final int MAX_RECORD_SIZE = MIN_RECORD_SIZE + FIELDS * (2 + MAX_STRING_BYTES);
+
+    private RecordCodec() {
+    }
+
+    static int encodedSize(InquiryServiceResultDTO result) {
+        return MIN_RECORD_SIZE
+                + stringSize(result.getTranID())
+                + stringSize(result.getNamespace())
+                + stringSize(result.getReasonCode())
+                + stringSize(result.getReasonDesc())
+                + stringSize(result.getRef_no1())
+                + stringSize(result.getRef_no2())
+                + stringSize(result.getAccountName());
+    }
+
+    // buffer ต้องมีที่ว่างพอ (encodedSize) ตั้งแต่ offset คืนขนาดที่เขียน
+    // ใช้ get/put แบบระบุตำแหน่งทั้งหมด ไม่แตะ position ของ buffer
+    static int encode(ByteBuffer buffer, int offset, long timestamp, InquiryServiceResultDTO result, CRC32 crc) {
+        int p = offset + HEADER_SIZE;
+        buffer.putLong(p, timestamp);
+        buffer.putLong(p + 8, minorUnits(result.getBalance()));
+        buffer.putLong(p + 16, minorUnits(result.getAmount()));
+        p = putString(buffer, p + 24, result.getTranID());
+        p = putString(buffer, p, result.getNamespace());
+        p = putString(buffer, p, result.getReasonCode());
+        p = putString(buffer, p, result.getReasonDesc());
+        p = putString(buffer, p, result.getRef_no1());
+        p = putString(buffer, p, result.getRef_no2());
+        p = putString(buffer, p, result.getAccountName());
+        int size = p - offset;
+
+        buffer.putInt(offset + 4, checksum(buffer, offset, size, crc));
+        // length เขียนหลังสุด record ที่เขียนไม่ครบจะยังเห็นเป็นท้ายข้อมูล
+        buffer.putInt(offset, size);
+        return size;
+    }
+
+    // ขนาดของ record ที่ offset ถ้าสมบูรณ์ 0 = ไม่มี record (ท้ายข้อมูล หรือเสีย)
+    static int recordSize(ByteBuffer buffer, int offset, int limit, CRC32 crc) {
+        if (limit - offset < MIN_RECORD_SIZE) {
+            return 0;
+        }
+        int size = buffer.getInt(offset);
+        if (size < MIN_RECORD_SIZE || size > limit - offset) {
+            return 0;
+        }
+        return buffer.getInt(offset + 4) == checksum(buffer, offset, size, crc) ? size : 0;
+    }
+
+    static long timestamp(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + HEADER_SIZE);
+    }
+
+    static String tranId(ByteBuffer buffer, int offset) {
+        return getString(buffer, offset + MIN_RECORD_SIZE);
+    }
+
+    static JournalRecord decode(ByteBuffer buffer, int offset) {
+        InquiryServiceResultDTO result = new InquiryServiceResultDTO();
+        result.setBalance(amount(buffer.getLong(offset + HEADER_SIZE + 8)));
+        result.setAmount(amount(buffer.getLong(offset + HEADER_SIZE + 16)));
+        int p = offset + MIN_RECORD_SIZE;
+        result.setTranID(getString(buffer, p));
+        result.setNamespace(getString(buffer, p = nextString(buffer, p)));
+        result.setReasonCode(getString(buffer, p = nextString(buffer, p)));
+        result.setReasonDesc(getString(buffer, p = nextString(buffer, p)));
+        result.setRef_no1(getString(buffer, p = nextString(buffer, p)));
+        result.setRef_no2(getString(buffer, p = nextString(buffer, p)));
+        result.setAccountName(getString(buffer, nextString(buffer, p)));
+        return new JournalRecord(timestamp(buffer, offset), result);
+    }
+
+    // ใช้ duplicate (cast เป็น Buffer ให้ binary รันบน Java 8 ได้) เพื่อไม่ยุ่งกับ position ของ buffer ที่ใช้ร่วมกัน
+    private static int checksum(ByteBuffer buffer, int offset, int size, CRC32 crc) {
+        ByteBuffer payload = buffer.duplicate();
+        ((Buffer) payload).limit(offset + size);
+        ((Buffer) payload).position(offset + HEADER_SIZE);
+        crc.reset();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static long minorUnits(Amount amount) {
+        return amount == null ? NULL_AMOUNT : amount.getMinorUnits();
+    }
+
+    private static Amount amount(long minorUnits) {
+        return minorUnits == NULL_AMOUNT ? null : Amount.ofMinorUnits(minorUnits);
+    }
+
+    private static int stringSize(String value) {
+        return value == null ? 2 : 2 + utf8Length(value, fittingChars(value));
+    }
+
+    private static int putString(ByteBuffer buffer, int p, String value) {
+        if (value == null) {
+            buffer.putShort(p, (short) NULL_LENGTH);
+            return p + 2;
+        }
+        int chars = fittingChars(value);
+        buffer.putShort(p, (short) utf8Length(value, chars));
+        p += 2;
+        for (int i = 0; i < chars; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put(p++, (byte) c);
+            } else if (c < 0x800) {
+                buffer.put(p++, (byte) (0xC0 | (c >> 6)));
+                buffer.put(p++, (byte) (0x80 | (c & 0x3F)));
+            } else if (isSurrogatePair(value, i, chars)) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put(p++, (byte) (0xF0 | (cp >> 18)));
+                buffer.put(p++, (byte) (0x80 | ((cp >> 12) & 0x3F)));
+                buffer.put(p++, (byte) (0x80 | ((cp >> 6) & 0x3F)));
+                buffer.put(p++, (byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                // surrogate ที่ไม่มีคู่เข้ารหัส UTF-8 ไม่ได้ ใช้ '?' แบบเดียวกับ String.getBytes
+                buffer.put(p++, (byte) '?');
+            } else {
+                buffer.put(p++, (byte) (0xE0 | (c >> 12)));
+                buffer.put(p++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put(p++, (byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        return p;
+    }
+
+    private static String getString(ByteBuffer buffer, int p) {
+        int length = buffer.getShort(p) & 0xFFFF;
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(p + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int nextString(ByteBuffer buffer, int p) {
+        int length = buffer.getShort(p) & 0xFFFF;
+        return p + 2 + (length == NULL_LENGTH ? 0 : length);
+    }
+
+    // จำนวนตัวอักษรที่เข้ารหัสแล้วไม่เกิน MAX_STRING_BYTES (ไม่ตัดกลางคู่ surrogate)
+    private static int fittingChars(String value) {
+        if (value.length() * 3 <= MAX_STRING_BYTES) {
+            return value.length();
+        }
+        int bytes = 0;
+        for (int i = 0; i < value.length(); i++) {
+            int width = isSurrogatePair(value, i, value.length()) ? 4 : charWidth(value.charAt(i));
+            if (bytes + width > MAX_STRING_BYTES) {
+                return i;
+            }
+            bytes += width;
+            if (width == 4) {
+                i++;
+            }
+        }
+        return value.length();
+    }
+
+    private static int utf8Length(String value, int chars) {
+        int bytes = 0;
+        for (int i = 0; i < chars; i++) {
+            if (isSurrogatePair(value, i, chars)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += charWidth(value.charAt(i));
+            }
+        }
+        return bytes;
+    }
+
+    private static int charWidth(char c) {
+        if (c < 0x80) {
+            return 1;
+        }
+        if (c < 0x800) {
+            return 2;
+        }
+        return Character.isSurrogate(c) ? 1 : 3;
+    }
+
+    private static boolean isSurrogatePair(String value, int i, int chars) {
+        return Character.isHighSurrogate(value.charAt(i)) && i + 1 < chars && Character.isLowSurrogate(value.charAt(i + 1));
+    }
+}
@@ -0,0 +1,214 @@
+package com.ascendcorp.exam.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+// จำนวนเงินแบบ fixed-point เก็บเป็นหน่วยย่อย (สตางค์, ทศนิยม 2 ตำแหน่ง) ใน long ไม่มีเศษจาก binary floating-point
+// สร้างครั้งเดียวตอน parse request แล้วส่งต่อ instance เดิมถึง InquiryServiceResultDTO (immutable ใช้ร่วมกันได้)
+// แปลงเป็นตัวอักษรครั้งเดียวตอนเขียน response ลง char[] แล้วส่งให้ generator ตรงๆ (AmountJsonSerializer)
+// ค่าจำกัดไม่เกิน 15 หลัก (หน่วยย่อย) ให้แปลงไป/กลับ double ได้ไม่เพี้ยน (รูปแบบ COMPAT และ Smile/CBOR แบบเดิมต้องใช้)
+@JsonSerialize(using = AmountJsonSerializer.class)
+@JsonDeserialize(using = AmountJsonDeserializer.class)
+public final class Amount implements Comparable<Amount>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int SCALE = 2;
+    public static final long MAX_MINOR_UNITS = 999_999_999_999_999L;
+    public static final Amount ZERO = new Amount(0);
+
+    // ความยาวสูงสุดที่ format เขียน ("-9.99999999999999E12", "-9999999999999.99")
+    public static final int MAX_FORMATTED_LENGTH = 24;
+
+    private static final long MINOR_PER_UNIT = 100;
+    // จำนวนหลักของส่วนจำนวนเต็มสูงสุด (MAX_MINOR_UNITS / MINOR_PER_UNIT = 9999999999999)
+    private static final int MAX_INTEGER_DIGITS = 13;
+    // Double.toString ใช้รูปแบบ 1.0E7 ตั้งแต่ 10^7 ขึ้นไป
+    private static final long COMPAT_PLAIN_LIMIT = 10_000_000L * MINOR_PER_UNIT;
+
+    // รูปแบบตัวอักษรของจำนวนเงินใน response
+    public enum Format {
+        // เหมือน String.valueOf(double) เดิม: "1000.0", "1000.5", "1000.25", "1.0E7" (ค่าตั้งต้น)
+        COMPAT,
+        // ทศนิยม 2 ตำแหน่งเสมอ ไม่มี exponent: "1000.00", "10000000.00"
+        FIXED
+    }
+
+    private final long minorUnits;
+
+    private Amount(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Amount ofMinorUnits(long minorUnits) {
+        if (minorUnits > MAX_MINOR_UNITS || minorUnits < -MAX_MINOR_UNITS) {
+            throw new NumberFormatException("Amount out of range: " + minorUnits + " minor units");
+        }
+        return minorUnits == 0 ? ZERO : new Amount(minorUnits);
+    }
+
+    public static Amount ofUnits(long units) {
+        if (units > MAX_MINOR_UNITS / MINOR_PER_UNIT || units < -MAX_MINOR_UNITS / MINOR_PER_UNIT) {
+            throw new NumberFormatException("Amount out of range: " + units);
+        }
+        return ofMinorUnits(units * MINOR_PER_UNIT);
+    }
+
+    // ทศนิยมเกิน 2 ตำแหน่งต้องเป็นศูนย์ ("1000.500" ได้ "1000.005" ไม่ได้) ไม่ปัดเศษเงินให้เงียบๆ
+    // ตรวจขนาดจาก precision / scale ก่อน setScale: "1e20000000" ยาวแค่ 10 byte แต่ setScale ต้องสร้างเลข 20 ล้านหลัก
+    public static Amount of(BigDecimal value) {
+        if (value.signum() == 0) {
+            return ZERO;
+        }
+        // precision - scale = จำนวนหลักหน้าจุดทศนิยม (ค่าไม่เป็นศูนย์)
+        // scale - SCALE >= precision แปลว่าต้องตัดศูนย์ท้ายออกมากกว่าจำนวนหลักที่มี ทศนิยมเกิน 2 ตำแหน่งแน่นอน
+        if (value.precision() - value.scale() > MAX_INTEGER_DIGITS
+                || (long) value.scale() - SCALE >= value.precision()) {
+            throw new NumberFormatException("Amount must have at most " + SCALE + " decimal places and fit in range: "
+                    + value.toString().substring(0, Math.min(value.toString().length(), 32)));
+        }
+        try {
+            return ofMinorUnits(value.setScale(SCALE).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount must have at most " + SCALE + " decimal places and fit in range: " + value);
+        }
+    }
+
+    public static Amount parse(CharSequence text) {
+        int length = text.length();
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = text.charAt(i);
+        }
+        return parse(chars, 0, length);
+    }
+
+    // รูปแบบตัวเลขของ JSON ("1000", "-1000.5", "1000.50") อ่านจาก char[] ตรงๆ ไม่สร้าง String
+    // ที่มี exponent ("1.0E7") ไม่ค่อยมี ส่งต่อให้ BigDecimal
+    public static Amount parse(char[] chars, int offset, int length) {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            if (chars[i] == 'e' || chars[i] == 'E') {
+                return of(new BigDecimal(chars, offset, length));
+            }
+        }
+        int p = offset;
+        boolean negative = p < end && chars[p] == '-';
+        if (negative || (p < end && chars[p] == '+')) {
+            p++;
+        }
+        long units = 0;
+        int digits = 0;
+        for (; p < end && chars[p] >= '0' && chars[p] <= '9'; p++, digits++) {
+            units = units * 10 + (chars[p] - '0');
+            if (units > MAX_MINOR_UNITS / MINOR_PER_UNIT) {
+                throw invalid(chars, offset, length);
+            }
+        }
+        long fraction = 0;
+        int scale = 0;
+        if (p < end && chars[p] == '.') {
+            for (p++; p < end && chars[p] >= '0' && chars[p] <= '9'; p++, digits++) {
+                if (scale < SCALE) {
+                    fraction = fraction * 10 + (chars[p] - '0');
+                    scale++;
+                } else if (chars[p] != '0') {
+                    throw invalid(chars, offset, length);
+                }
+            }
+        }
+        for (; scale < SCALE; scale++) {
+            fraction *= 10;
+        }
+        if (p != end || digits == 0) {
+            throw invalid(chars, offset, length);
+        }
+        long minorUnits = units * MINOR_PER_UNIT + fraction;
+        return ofMinorUnits(negative ? -minorUnits : minorUnits);
+    }
+
+    private static NumberFormatException invalid(char[] chars, int offset, int length) {
+        return new NumberFormatException("Invalid amount (at most " + SCALE + " decimal places, at most "
+                + MAX_MINOR_UNITS / MINOR_PER_UNIT + "): " + new String(chars, offset, length));
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    // double ที่ใกล้ที่สุด เท่ากับ parse ข้อความตัวเลขเดียวกันเป็น double (ไม่เกิน 15 หลักจึงแปลงกลับได้ค่าเดิม)
+    public double toDouble() {
+        return minorUnits / (double) MINOR_PER_UNIT;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    // เขียนตัวอักษรลง dest ตั้งแต่ offset (ต้องว่างอย่างน้อย MAX_FORMATTED_LENGTH) คืนจำนวนตัวอักษรที่เขียน
+    public int format(Format format, char[] dest, int offset) {
+        long abs = Math.abs(minorUnits);
+        if (format == Format.COMPAT && abs >= COMPAT_PLAIN_LIMIT) {
+            String text = Double.toString(toDouble());
+            text.getChars(0, text.length(), dest, offset);
+            return text.length();
+        }
+        int p = offset;
+        if (minorUnits < 0) {
+            dest[p++] = '-';
+        }
+        p = writeDigits(abs / MINOR_PER_UNIT, dest, p);
+        dest[p++] = '.';
+        int fraction = (int) (abs % MINOR_PER_UNIT);
+        dest[p++] = (char) ('0' + fraction / 10);
+        // COMPAT ตัดศูนย์ท้ายเหลืออย่างน้อยหนึ่งหลักแบบ Double.toString
+        if (format == Format.FIXED || fraction % 10 != 0) {
+            dest[p++] = (char) ('0' + fraction % 10);
+        }
+        return p - offset;
+    }
+
+    private static int writeDigits(long value, char[] dest, int p) {
+        int digits = 1;
+        for (long v = value / 10; v != 0; v /= 10) {
+            digits++;
+        }
+        for (int i = p + digits - 1; i >= p; i--) {
+            dest[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return p + digits;
+    }
+
+    public String toString(Format format) {
+        char[] chars = new char[MAX_FORMATTED_LENGTH];
+        return new String(chars, 0, format(format, chars, 0));
+    }
+
+    @Override
+    public String toString() {
+        return toString(Format.COMPAT);
+    }
+
+    @Override
+    public int compareTo(Amount other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Amount && ((Amount) o).minorUnits == minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+}
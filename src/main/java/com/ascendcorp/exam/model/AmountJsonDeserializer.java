@@ -0,0 +1,41 @@
+package com.ascendcorp.exam.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+import java.io.IOException;
+
+// รับได้ทั้งตัวเลข (1000.0, 1000) และ string ("1000.00")
+// ตัวเลขทศนิยมอ่านจาก buffer ตัวอักษรของ parser ตรงๆ ไม่ผ่าน double (Smile/CBOR parser แปลงค่า binary เป็นตัวอักษรให้)
+// ทศนิยมเกิน 2 ตำแหน่งหรือเกินช่วง เป็น InvalidFormatException (400 / record error ใน stream)
+public class AmountJsonDeserializer extends StdScalarDeserializer<Amount> {
+
+    public AmountJsonDeserializer() {
+        super(Amount.class);
+    }
+
+    @Override
+    public Amount deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        try {
+            if (token == JsonToken.VALUE_NUMBER_INT && p.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                return Amount.ofUnits(p.getLongValue());
+            }
+            if (token == JsonToken.VALUE_STRING && p.getTextLength() == 0) {
+                // "" เหมือนไม่ส่งมา ให้ validation ตอบ amount must_be_positive แบบเดียวกับตอนเป็น double
+                return null;
+            }
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_STRING) {
+                return Amount.parse(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+            }
+        } catch (NumberFormatException e) {
+            if (token == JsonToken.VALUE_STRING) {
+                return (Amount) ctxt.handleWeirdStringValue(Amount.class, p.getText(), e.getMessage());
+            }
+            return (Amount) ctxt.handleWeirdNumberValue(Amount.class, p.getNumberValue(), e.getMessage());
+        }
+        return (Amount) ctxt.handleUnexpectedToken(Amount.class, p);
+    }
+}
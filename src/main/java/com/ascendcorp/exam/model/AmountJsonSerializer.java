@@ -0,0 +1,59 @@
+package com.ascendcorp.exam.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+// เขียน Amount เป็นตัวเลข JSON (ค่าตั้งต้น) หรือ string เมื่อ property มี @JsonFormat(shape = STRING)
+// รูปแบบตัวอักษร (Amount.Format) อ่านจาก attribute ของ mapper ตอนสร้าง serializer ของแต่ละ property ครั้งเดียว
+// ไม่ได้ตั้ง = COMPAT (ดู AmountFormatConfig)
+// format binary (Smile/CBOR) เขียนตัวเลขเป็น binary: COMPAT เป็น double แบบเดิม FIXED เป็น decimal ตรงตัว
+public class AmountJsonSerializer extends StdSerializer<Amount> implements ContextualSerializer {
+
+    private final boolean asString;
+    private final Amount.Format format;
+
+    public AmountJsonSerializer() {
+        this(false, Amount.Format.COMPAT);
+    }
+
+    AmountJsonSerializer(boolean asString, Amount.Format format) {
+        super(Amount.class);
+        this.asString = asString;
+        this.format = format;
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) {
+        JsonFormat.Value shape = findFormatOverrides(provider, property, Amount.class);
+        boolean contextAsString = shape != null && shape.getShape() == JsonFormat.Shape.STRING;
+        Object attribute = provider.getAttribute(Amount.Format.class);
+        Amount.Format contextFormat = attribute instanceof Amount.Format ? (Amount.Format) attribute : Amount.Format.COMPAT;
+        return contextAsString == asString && contextFormat == format ? this : new AmountJsonSerializer(contextAsString, contextFormat);
+    }
+
+    @Override
+    public void serialize(Amount value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (!asString && !gen.canWriteFormattedNumbers()) {
+            if (format == Amount.Format.COMPAT) {
+                gen.writeNumber(value.toDouble());
+            } else {
+                gen.writeNumber(value.toBigDecimal());
+            }
+            return;
+        }
+        char[] chars = new char[Amount.MAX_FORMATTED_LENGTH];
+        int length = value.format(format, chars, 0);
+        if (asString) {
+            gen.writeString(chars, 0, length);
+        } else {
+            gen.writeNumber(chars, 0, length);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ascendcorp.exam.model;
+
+import lombok.Value;
+
+import java.io.Serializable;
+
+@Value
+public class FieldViolation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    String field;
+
+    String code;
+
+    String message;
+}
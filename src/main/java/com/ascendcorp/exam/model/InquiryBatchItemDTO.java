@@ -0,0 +1,18 @@
+package com.ascendcorp.exam.model;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+@Data
+public class InquiryBatchItemDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int index;
+
+    private InquiryServiceResultDTO result;
+
+    private String error;
+
+}
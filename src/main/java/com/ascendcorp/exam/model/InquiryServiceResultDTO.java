@@ -1,5 +1,6 @@
 package com.ascendcorp.exam.model;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Data;
 
 import java.io.Serializable;
@@ -16,13 +17,16 @@ public class InquiryServiceResultDTO implements Serializable {
 
     private java.lang.String reasonDesc;
 
-    private java.lang.String balance;
+    // เขียนเป็น string ใน JSON แบบเดิม ("1000.0")
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Amount balance;
 
     private java.lang.String ref_no1;
 
     private java.lang.String ref_no2;
 
-    private java.lang.String amount;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Amount amount;
 
     private String accountName = null;
 
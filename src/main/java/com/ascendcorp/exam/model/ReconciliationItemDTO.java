@@ -0,0 +1,22 @@
+package com.ascendcorp.exam.model;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+// ผลของหนึ่ง record ในไฟล์ reconciliation offset = ตำแหน่ง byte ของบรรทัดในไฟล์ input (ใช้อ้างกลับไปหา record เดิม)
+// ผลไม่เรียงตามลำดับในไฟล์ (chunk เสร็จไม่พร้อมกัน) แต่ใน chunk เดียวกันเรียงตามลำดับ
+@Data
+public class ReconciliationItemDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long offset;
+
+    private String tranId;
+
+    private InquiryServiceResultDTO result;
+
+    private String error;
+
+}
@@ -20,7 +20,7 @@ public class TransferResponse {
     private String description;
     private String referenceCode1;
     private String referenceCode2;
-    private double amount;
+    private Amount amount;
     private String firstName;
     private String lastName;
 
@@ -0,0 +1,18 @@
+package com.ascendcorp.exam.model;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+public class ValidationErrorDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String reasonCode;
+
+    private String reasonDesc;
+
+    private List<FieldViolation> errors;
+}
@@ -0,0 +1,133 @@
+package com.ascendcorp.exam.proxy;
+
+import com.ascendcorp.exam.config.BankGuardProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// ปรับ limit ตาม RTT ที่วัดได้ (แนว gradient)
+// longRtt คือค่าเฉลี่ยระยะยาว ถ้า RTT ล่าสุดสูงกว่า longRtt * tolerance แปลว่าเริ่มมีคิวที่ฝั่งธนาคาร limit จะลดลง
+// ถ้า RTT ใกล้ค่าปกติ limit จะขยับขึ้นทีละประมาณ sqrt(limit) ถ้า call error จะลด limit ลงตาม backoffRatio
+public class AdaptiveConcurrencyLimit implements BankConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final int longWindow;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // ใช้ ReentrantLock แทน synchronized/wait เพื่อไม่ให้ virtual thread ที่รออยู่ pin carrier thread ไว้
+    private final ReentrantLock waitLock = new ReentrantLock();
+    private final Condition permitReleased = waitLock.newCondition();
+    private volatile int waiters;
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimit(BankGuardProperties.Limiter config, int maxLimit) {
+        this.minLimit = Math.max(1, config.getMinLimit());
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = config.getTolerance();
+        this.smoothing = config.getSmoothing();
+        this.backoffRatio = config.getBackoffRatio();
+        this.longWindow = Math.max(1, config.getLongWindow());
+        this.estimatedLimit = Math.max(this.minLimit, Math.min(this.maxLimit, config.getInitialLimit()));
+        this.limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public boolean tryAcquire(long maxWaitNanos) throws InterruptedException {
+        if (tryAcquireNow()) {
+            return true;
+        }
+        if (maxWaitNanos <= 0) {
+            return false;
+        }
+
+        long deadline = System.nanoTime() + maxWaitNanos;
+        waitLock.lock();
+        try {
+            waiters++;
+            try {
+                while (!tryAcquireNow()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    permitReleased.awaitNanos(remaining);
+                }
+                return true;
+            } finally {
+                waiters--;
+            }
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    private boolean tryAcquireNow() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void release(long rttNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        update(rttNanos, current, dropped);
+        if (waiters > 0) {
+            waitLock.lock();
+            try {
+                permitReleased.signalAll();
+            } finally {
+                waitLock.unlock();
+            }
+        }
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtRelease, boolean dropped) {
+        if (dropped) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * backoffRatio);
+            limit = (int) estimatedLimit;
+            return;
+        }
+
+        double rtt = Math.max(1, rttNanos);
+        longRtt = longRtt == 0 ? rtt : longRtt + (rtt - longRtt) / longWindow;
+        if (longRtt / rtt > 2) {
+            // RTT ดีขึ้นมากแล้ว ค่าเฉลี่ยระยะยาวยังค้างของเก่า ดึงลงมาให้เร็วขึ้น
+            longRtt *= 0.95;
+        }
+
+        if (inFlightAtRelease < estimatedLimit / 2) {
+            // ใช้ไม่ถึงครึ่งของ limit ยังไม่รู้ว่าธนาคารรับได้แค่ไหน ไม่ต้องขยาย
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / rtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,182 @@
+package com.ascendcorp.exam.proxy;
+
+import com.ascendcorp.exam.config.BankGuardProperties;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// แยก bulkhead (จำกัด call ที่ค้างอยู่ แบบคงที่หรือปรับตาม RTT) และ circuit breaker ต่อ bankCode
+// ธนาคารที่ช้าหรือล่มจะกินได้แค่โควต้าของตัวเอง ไม่ลากธนาคารอื่นช้าไปด้วย
+@Component
+public class BankCallGuard {
+
+    final static Logger log = LogManager.getLogger(BankCallGuard.class);
+
+    private final BankGuardProperties properties;
+    private final ConcurrentHashMap<String, Guard> guards = new ConcurrentHashMap<>();
+    private final Guard overflowGuard;
+
+    private final LongAdder rejectedCircuitOpen = new LongAdder();
+    private final LongAdder rejectedBulkheadFull = new LongAdder();
+
+    @Autowired
+    public BankCallGuard(BankGuardProperties properties) {
+        this.properties = properties;
+        this.overflowGuard = new Guard("*", properties.getBulkhead().getMaxConcurrent());
+    }
+
+    public <T> T execute(String bankCode, Supplier<T> call) {
+        if (!properties.isEnabled()) {
+            return call.get();
+        }
+
+        Guard guard = guardFor(bankCode);
+        acquire(guard, properties.getBulkhead().getMaxWait().toNanos());
+        long start = System.nanoTime();
+        boolean error = true;
+        try {
+            T result = call.get();
+            error = false;
+            return result;
+        } finally {
+            long rtt = System.nanoTime() - start;
+            guard.limit.release(rtt, error);
+            guard.breaker.onResult(rtt, error);
+        }
+    }
+
+    // path async ห้าม block จึงไม่รอ bulkhead ถ้าเต็มก็ปฏิเสธทันที
+    public <T> CompletableFuture<T> executeAsync(String bankCode, Supplier<CompletableFuture<T>> call) {
+        if (!properties.isEnabled()) {
+            return call.get();
+        }
+
+        Guard guard = guardFor(bankCode);
+        try {
+            acquire(guard, 0);
+        } catch (BankUnavailableException e) {
+            CompletableFuture<T> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            long rtt = System.nanoTime() - start;
+            guard.limit.release(rtt, true);
+            guard.breaker.onResult(rtt, true);
+            throw e;
+        }
+        // ไม่ใช้ future.whenComplete(...) เป็นตัวคืนค่า เพราะถ้าผู้เรียก cancel ตัวนั้น action คืน permit จะไม่ถูกเรียก
+        CompletableFuture<T> guarded = new CompletableFuture<>();
+        future.whenComplete((result, e) -> {
+            long rtt = System.nanoTime() - start;
+            if (e instanceof CancellationException) {
+                // ผู้เรียกยกเลิกเอง (เช่น hedge อีกตัวชนะ) ธนาคารไม่ได้ผิด คืน permit แต่ไม่นับใน circuit breaker
+                guard.limit.release(rtt, false);
+                guard.breaker.releasePermission();
+            } else {
+                guard.limit.release(rtt, e != null);
+                guard.breaker.onResult(rtt, e != null);
+            }
+            if (e != null) {
+                guarded.completeExceptionally(e);
+            } else {
+                guarded.complete(result);
+            }
+        });
+        // cancel ต้องไปถึง future ของ gateway ไม่อย่างนั้น call ที่ถูกยกเลิกจะจอง bulkhead จนธนาคารตอบ
+        guarded.whenComplete((result, e) -> {
+            if (guarded.isCancelled()) {
+                future.cancel(false);
+            }
+        });
+        return guarded;
+    }
+
+    private void acquire(Guard guard, long maxWaitNanos) {
+        if (!guard.breaker.tryAcquirePermission()) {
+            rejectedCircuitOpen.increment();
+            throw new BankUnavailableException(BankUnavailableException.CIRCUIT_OPEN,
+                    "Bank " + guard.bankCode + " is temporarily unavailable");
+        }
+
+        boolean acquired;
+        try {
+            acquired = guard.limit.tryAcquire(maxWaitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            guard.breaker.releasePermission();
+            rejectedBulkheadFull.increment();
+            throw new BankUnavailableException(BankUnavailableException.BULKHEAD_FULL,
+                    "Too many pending requests to bank " + guard.bankCode);
+        }
+    }
+
+    private Guard guardFor(String bankCode) {
+        Guard guard = guards.get(bankCode);
+        if (guard != null) {
+            return guard;
+        }
+        if (guards.size() >= properties.getMaxBanks()) {
+            return overflowGuard;
+        }
+        return guards.computeIfAbsent(bankCode, code -> {
+            log.info("Create bank guard for bankCode {}", code);
+            return new Guard(code, properties.getBulkhead().getBanks()
+                    .getOrDefault(code, properties.getBulkhead().getMaxConcurrent()));
+        });
+    }
+
+    public BankCircuitBreaker.State getState(String bankCode) {
+        Guard guard = guards.get(bankCode);
+        return guard != null ? guard.breaker.getState() : BankCircuitBreaker.State.CLOSED;
+    }
+
+    public int getLimit(String bankCode) {
+        Guard guard = guards.get(bankCode);
+        return guard != null ? guard.limit.getLimit() : 0;
+    }
+
+    public Map<String, Long> stats() {
+        long open = guards.values().stream()
+                .filter(guard -> guard.breaker.getState() != BankCircuitBreaker.State.CLOSED)
+                .count();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("guard.banks", (long) guards.size());
+        stats.put("guard.circuitsNotClosed", open);
+        stats.put("guard.rejected.circuitOpen", rejectedCircuitOpen.sum());
+        stats.put("guard.rejected.bulkheadFull", rejectedBulkheadFull.sum());
+        return stats;
+    }
+
+    private class Guard {
+
+        final String bankCode;
+        final BankConcurrencyLimit limit;
+        final BankCircuitBreaker breaker;
+
+        Guard(String bankCode, int maxConcurrent) {
+            this.bankCode = bankCode;
+            this.limit = properties.getLimiter().isEnabled()
+                    ? new AdaptiveConcurrencyLimit(properties.getLimiter(), maxConcurrent)
+                    : new FixedConcurrencyLimit(maxConcurrent);
+            this.breaker = new BankCircuitBreaker(properties.getBreaker());
+        }
+    }
+}
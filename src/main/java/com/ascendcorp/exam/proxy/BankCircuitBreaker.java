@@ -0,0 +1,137 @@
+package com.ascendcorp.exam.proxy;
+
+import com.ascendcorp.exam.config.BankGuardProperties;
+
+import java.util.function.LongSupplier;
+
+// circuit breaker แบบนับ call ล่าสุด windowSize ตัว
+// CLOSED: ยิงได้ปกติ ถ้าอัตรา error หรืออัตรา call ที่ช้าเกิน threshold จะเปิด circuit
+// OPEN: ปฏิเสธทันทีจนครบ openDuration แล้วไป HALF_OPEN
+// HALF_OPEN: ปล่อยให้ลองยิง halfOpenCalls ตัว ผ่านครบทุกตัวก็ปิด circuit ถ้ามีตัวไหน error หรือช้าก็เปิดใหม่
+public class BankCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int minimumCalls;
+    private final float failureRateThreshold;
+    private final long slowCallNanos;
+    private final float slowCallRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int recorded;
+    private int failedCount;
+    private int slowCount;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public BankCircuitBreaker(BankGuardProperties.Breaker config) {
+        this(config, System::nanoTime);
+    }
+
+    BankCircuitBreaker(BankGuardProperties.Breaker config, LongSupplier clock) {
+        this.minimumCalls = Math.min(config.getMinimumCalls(), config.getWindowSize());
+        this.failureRateThreshold = config.getFailureRateThreshold();
+        this.slowCallNanos = config.getSlowCallDuration().toNanos();
+        this.slowCallRateThreshold = config.getSlowCallRateThreshold();
+        this.openNanos = config.getOpenDuration().toNanos();
+        this.halfOpenCalls = Math.max(1, config.getHalfOpenCalls());
+        this.clock = clock;
+        this.failed = new boolean[config.getWindowSize()];
+        this.slow = new boolean[config.getWindowSize()];
+    }
+
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    // ได้ permission แล้วแต่ไม่ได้ยิงจริง (เช่น bulkhead เต็ม) คืน permission ให้ probe ตัวอื่น
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized void onResult(long durationNanos, boolean error) {
+        boolean slowCall = durationNanos >= slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            if (error || slowCall) {
+                open();
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // call ที่ยิงออกไปก่อน circuit เปิด เพิ่งตอบกลับมา ไม่ต้องนับ
+            return;
+        }
+
+        record(error, slowCall);
+        if (recorded >= minimumCalls
+                && (failedCount * 100f / recorded >= failureRateThreshold
+                || slowCount * 100f / recorded >= slowCallRateThreshold)) {
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean error, boolean slowCall) {
+        if (recorded == failed.length) {
+            if (failed[next]) {
+                failedCount--;
+            }
+            if (slow[next]) {
+                slowCount--;
+            }
+        } else {
+            recorded++;
+        }
+        failed[next] = error;
+        slow[next] = slowCall;
+        if (error) {
+            failedCount++;
+        }
+        if (slowCall) {
+            slowCount++;
+        }
+        next = (next + 1) % failed.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failedCount = 0;
+        slowCount = 0;
+    }
+}
@@ -0,0 +1,14 @@
+package com.ascendcorp.exam.proxy;
+
+// จำนวน call ที่ยิงค้างไปที่ธนาคารหนึ่งได้พร้อมกัน
+public interface BankConcurrencyLimit {
+
+    boolean tryAcquire(long maxWaitNanos) throws InterruptedException;
+
+    // rttNanos คือเวลาที่ call นี้ใช้ dropped คือ call error ไม่ได้คำตอบจากธนาคาร
+    void release(long rttNanos, boolean dropped);
+
+    int getLimit();
+
+    int getInFlight();
+}
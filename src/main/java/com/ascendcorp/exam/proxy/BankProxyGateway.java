@@ -3,6 +3,8 @@ package com.ascendcorp.exam.proxy;
 import com.ascendcorp.exam.model.TransferResponse;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @Component
 public class BankProxyGateway {
 
@@ -26,5 +28,19 @@ public class BankProxyGateway {
 
         return response;
     }
+
+    // สัญญาแบบ non-blocking: implementation ที่คุยกับธนาคารจริงควร override ให้ complete future จาก I/O callback
+    // โดยไม่จอง thread ระหว่างรอ ตัว echo นี้ตอบทันทีจึงคืน future ที่ complete แล้ว
+    public CompletableFuture<TransferResponse> requestTransferAsync(
+            TransferResponse transferResponse) {
+
+        CompletableFuture<TransferResponse> future = new CompletableFuture<>();
+        try {
+            future.complete(requestTransfer(transferResponse));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
 }
 
@@ -0,0 +1,217 @@
+package com.ascendcorp.exam.proxy;
+
+import com.ascendcorp.exam.config.BankRateLimitProperties;
+import com.ascendcorp.exam.config.ConfigReloader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// จำกัด TPS ขาออกต่อ bankCode ตามโควต้าของธนาคาร (token bucket ต่อธนาคาร)
+// ถ้า token หมด จะรอได้ไม่เกิน maxWait (sync รอบน thread, async เลื่อนการยิงด้วย timer) เกินจากนั้นปฏิเสธด้วย reason code 429
+// โควต้าเปลี่ยนได้ระหว่างรันผ่าน ConfigReloader
+@Component
+public class BankRateLimiter implements MeterBinder {
+
+    final static Logger log = LogManager.getLogger(BankRateLimiter.class);
+
+    private static final int MAX_BANKS = 256;
+    private static final String OTHER = "other";
+
+    private volatile BankRateLimitProperties properties;
+    private volatile ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final ConcurrentHashMap<String, Counter> throttledCounters = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    @Autowired
+    public BankRateLimiter(BankRateLimitProperties properties) {
+        this.properties = properties;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "bank-rate-limit-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Autowired(required = false)
+    public void setConfigReloader(ConfigReloader configReloader) {
+        configReloader.register("bank.rate-limit", BankRateLimitProperties.class, this::reload);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    public <T> T execute(String bankCode, Supplier<T> call) {
+        long waitNanos = acquire(bankCode);
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BankUnavailableException(BankUnavailableException.RATE_LIMITED,
+                        "Interrupted while waiting for bank " + bankCode + " rate limit");
+            }
+        }
+        return call.get();
+    }
+
+    public <T> CompletableFuture<T> executeAsync(String bankCode, Supplier<CompletableFuture<T>> call) {
+        long waitNanos;
+        try {
+            waitNanos = acquire(bankCode);
+        } catch (BankUnavailableException e) {
+            CompletableFuture<T> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+        if (waitNanos <= 0) {
+            return call.get();
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        timer.schedule(() -> {
+            if (result.isDone()) {
+                // ผู้เรียกยกเลิกระหว่างรอ token ไม่ต้องยิง
+                return;
+            }
+            try {
+                CompletableFuture<T> future = call.get();
+                future.whenComplete((value, e) -> {
+                    if (e != null) {
+                        result.completeExceptionally(e);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+                result.whenComplete((value, e) -> {
+                    if (result.isCancelled()) {
+                        future.cancel(false);
+                    }
+                });
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }, waitNanos, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private long acquire(String bankCode) {
+        BankRateLimitProperties current = properties;
+        if (!current.isEnabled()) {
+            return 0;
+        }
+        Bucket bucket = bucketFor(bankCode, current);
+        if (bucket.tokens == null) {
+            return 0;
+        }
+
+        long waitNanos = bucket.tokens.tryAcquire(System.nanoTime(), bucket.maxWaitNanos);
+        if (waitNanos < 0) {
+            rejected.increment();
+            throttled(bucket.tag, "rejected");
+            throw new BankUnavailableException(BankUnavailableException.RATE_LIMITED,
+                    "Rate limit exceeded for bank " + bankCode);
+        }
+        if (waitNanos > 0) {
+            delayed.increment();
+            throttled(bucket.tag, "delayed");
+        }
+        return waitNanos;
+    }
+
+    private Bucket bucketFor(String bankCode, BankRateLimitProperties current) {
+        ConcurrentHashMap<String, Bucket> map = buckets;
+        Bucket bucket = map.get(bankCode);
+        if (bucket != null) {
+            return bucket;
+        }
+        // ธนาคารที่ไม่ได้ตั้งโควต้าไว้เกิน MAX_BANKS ใช้ bucket รวมกัน กัน bankCode ขยะทำ memory โต
+        String key = current.getBanks().containsKey(bankCode) || map.size() < MAX_BANKS ? bankCode : OTHER;
+        return map.computeIfAbsent(key, code -> newBucket(code, current, null));
+    }
+
+    private Bucket newBucket(String bankCode, BankRateLimitProperties current, Bucket previous) {
+        BankRateLimitProperties.Quota quota = current.getBanks().get(bankCode);
+        boolean configured = quota != null;
+        if (quota == null) {
+            quota = current.getDefaultQuota();
+        }
+        Duration maxWait = quota.getMaxWait() != null ? quota.getMaxWait() : current.getMaxWait();
+        TokenBucket tokens = quota.getTps() > 0
+                ? new TokenBucket(quota.getTps(), quota.getBurst(), System.nanoTime())
+                : null;
+        if (tokens != null && previous != null && previous.tokens != null) {
+            tokens.continueFrom(previous.tokens);
+        }
+        return new Bucket(tokens, maxWait.toNanos(), configured ? bankCode : OTHER);
+    }
+
+    // สลับเป็นโควต้าใหม่ทั้งชุด bucket ของธนาคารที่มีอยู่แล้วต่อ state จากของเดิม
+    void reload(BankRateLimitProperties reloaded) {
+        ConcurrentHashMap<String, Bucket> next = new ConcurrentHashMap<>();
+        buckets.forEach((bankCode, bucket) -> next.put(bankCode, newBucket(bankCode, reloaded, bucket)));
+        properties = reloaded;
+        buckets = next;
+        log.info("Bank rate limit reloaded enabled={} banks={}", reloaded.isEnabled(), reloaded.getBanks().keySet());
+    }
+
+    // tag bankCode เฉพาะธนาคารที่ตั้งโควต้าไว้ จำนวน series จึงเท่ากับจำนวนธนาคารใน config
+    private void throttled(String tag, String outcome) {
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry == null) {
+            return;
+        }
+        throttledCounters.computeIfAbsent(tag + '|' + outcome, k -> Counter.builder("bank.rate.limit.throttled")
+                .description("Outbound bank calls delayed or rejected by the rate limit")
+                .tag("bankCode", tag)
+                .tag("outcome", outcome)
+                .register(meterRegistry)).increment();
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("rateLimit.delayed", delayed.sum());
+        stats.put("rateLimit.rejected", rejected.sum());
+        return stats;
+    }
+
+    private static final class Bucket {
+
+        // null = ไม่จำกัด
+        final TokenBucket tokens;
+        final long maxWaitNanos;
+        final String tag;
+
+        Bucket(TokenBucket tokens, long maxWaitNanos, String tag) {
+            this.tokens = tokens;
+            this.maxWaitNanos = maxWaitNanos;
+            this.tag = tag;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.ascendcorp.exam.proxy;
+
+import com.ascendcorp.exam.config.BankHedgeProperties;
+import com.ascendcorp.exam.model.TransferResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// inquiry เป็นการอ่านอย่างเดียว ยิงซ้ำได้ปลอดภัย ถ้า call แรกยังไม่ตอบเกิน percentile ของ latency ล่าสุด
+// จะยิง call ที่สอง (hedge) ตัวไหนตอบก่อนใช้ตัวนั้นแล้ว cancel อีกตัว (future ที่ call คืนมาต้องส่ง cancel
+// ต่อไปถึง gateway เอง ตัวที่แพ้จึงคืน connection / bulkhead ทันที ไม่ต้องรอธนาคารตอบ)
+// จำนวน hedge ถูกจำกัดด้วย budget: ทุก request ได้ budgetPercent/100 token, hedge หนึ่งครั้งใช้ 1 token
+@Component
+public class BankRequestHedger {
+
+    private static final long TOKEN_SCALE = 1000;
+    private static final long MAX_TOKENS = 10 * TOKEN_SCALE;
+    private static final int MAX_BANKS = 256;
+
+    private final BankHedgeProperties properties;
+    private final ConcurrentHashMap<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final AtomicLong budgetTokens = new AtomicLong();
+    private final long tokensPerRequest;
+    private final ScheduledExecutorService timer;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder won = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    @Autowired
+    public BankRequestHedger(BankHedgeProperties properties) {
+        this.properties = properties;
+        this.tokensPerRequest = (long) (properties.getBudgetPercent() / 100 * TOKEN_SCALE);
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "bank-hedge-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isHedged(TransferResponse transferResponse) {
+        return properties.isEnabled()
+                && (properties.getBanks().contains(transferResponse.getBankCode())
+                || properties.getChannels().contains(transferResponse.getChannel()));
+    }
+
+    public <T> CompletableFuture<T> execute(TransferResponse transferResponse, Supplier<CompletableFuture<T>> call) {
+        if (!isHedged(transferResponse)) {
+            return call.get();
+        }
+
+        LatencyWindow latency = latencyFor(transferResponse.getBankCode());
+        if (latency == null) {
+            return call.get();
+        }
+        requests.increment();
+        addBudget();
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        CompletableFuture<T> primary = attempt(call, latency, result, pending, false);
+
+        long delay = latency.getPercentileNanos();
+        if (delay < 0 || result.isDone()) {
+            // ยังไม่มี latency พอจะตัดสินใจ ไม่ hedge
+            return result;
+        }
+        delay = Math.max(delay, properties.getMinDelay().toNanos());
+
+        ScheduledFuture<?> hedgeTimer = timer.schedule(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            if (!tryAcquireBudget()) {
+                budgetExhausted.increment();
+                return;
+            }
+            fired.increment();
+            pending.incrementAndGet();
+            CompletableFuture<T> hedge = attempt(call, latency, result, pending, true);
+            result.whenComplete((value, e) -> hedge.cancel(false));
+        }, delay, TimeUnit.NANOSECONDS);
+
+        result.whenComplete((value, e) -> {
+            hedgeTimer.cancel(false);
+            primary.cancel(false);
+        });
+        return result;
+    }
+
+    private LatencyWindow latencyFor(String bankCode) {
+        LatencyWindow latency = latencies.get(bankCode);
+        if (latency != null || latencies.size() >= MAX_BANKS) {
+            return latency;
+        }
+        return latencies.computeIfAbsent(bankCode,
+                code -> new LatencyWindow(properties.getWindowSize(), properties.getPercentile(), properties.getMinSamples()));
+    }
+
+    private <T> CompletableFuture<T> attempt(Supplier<CompletableFuture<T>> call, LatencyWindow latency,
+                                             CompletableFuture<T> result, AtomicInteger pending, boolean hedge) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        future.whenComplete((value, e) -> {
+            if (e == null) {
+                latency.record(System.nanoTime() - start);
+                // นับก่อน complete ผู้ที่รอ result อยู่จะเห็น stats ที่นับแล้ว
+                if (hedge) {
+                    won.increment();
+                }
+                if (!result.complete(value) && hedge) {
+                    won.decrement();
+                }
+            } else if (pending.decrementAndGet() == 0) {
+                // ทุก call ล้มเหลว ส่ง error ตัวสุดท้ายกลับไป
+                result.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private void addBudget() {
+        long current;
+        do {
+            current = budgetTokens.get();
+            if (current >= MAX_TOKENS) {
+                return;
+            }
+        } while (!budgetTokens.compareAndSet(current, Math.min(MAX_TOKENS, current + tokensPerRequest)));
+    }
+
+    private boolean tryAcquireBudget() {
+        long current;
+        do {
+            current = budgetTokens.get();
+            if (current < TOKEN_SCALE) {
+                return false;
+            }
+        } while (!budgetTokens.compareAndSet(current, current - TOKEN_SCALE));
+        return true;
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("hedge.requests", requests.sum());
+        stats.put("hedge.fired", fired.sum());
+        stats.put("hedge.won", won.sum());
+        stats.put("hedge.budgetExhausted", budgetExhausted.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,10 @@
+package com.ascendcorp.exam.proxy;
+
+// ธนาคารไม่ตอบภายในเวลาที่กำหนด นับเป็น error ของ circuit breaker และ concurrency limit
+// เกิดเป็นชุดตอนธนาคารช้า จึงไม่เก็บ stack trace
+public class BankTimeoutException extends RuntimeException {
+
+    public BankTimeoutException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ascendcorp.exam.proxy;
+
+import lombok.Getter;
+
+// ใช้ตอนปฏิเสธ call ไปธนาคารก่อนยิงจริง (circuit เปิด, bulkhead เต็ม, เกินโควต้า TPS) เกิดถี่มากตอนธนาคารมีปัญหา จึงไม่เก็บ stack trace
+@Getter
+public class BankUnavailableException extends RuntimeException {
+
+    public static final String CIRCUIT_OPEN = "503";
+    public static final String BULKHEAD_FULL = "509";
+    public static final String RATE_LIMITED = "429";
+
+    private final String reasonCode;
+
+    public BankUnavailableException(String reasonCode, String reasonDesc) {
+        super(reasonDesc, null, false, false);
+        this.reasonCode = reasonCode;
+    }
+
+    public String getReasonDesc() {
+        return getMessage();
+    }
+}
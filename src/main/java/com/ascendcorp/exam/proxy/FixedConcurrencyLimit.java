@@ -0,0 +1,35 @@
+package com.ascendcorp.exam.proxy;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+public class FixedConcurrencyLimit implements BankConcurrencyLimit {
+
+    private final int limit;
+    private final Semaphore permits;
+
+    public FixedConcurrencyLimit(int limit) {
+        this.limit = limit;
+        this.permits = new Semaphore(limit);
+    }
+
+    @Override
+    public boolean tryAcquire(long maxWaitNanos) throws InterruptedException {
+        return maxWaitNanos > 0 ? permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS) : permits.tryAcquire();
+    }
+
+    @Override
+    public void release(long rttNanos, boolean dropped) {
+        permits.release();
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public int getInFlight() {
+        return limit - permits.availablePermits();
+    }
+}
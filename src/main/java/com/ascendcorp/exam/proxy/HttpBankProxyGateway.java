@@ -0,0 +1,239 @@
+package com.ascendcorp.exam.proxy;
+
+import com.ascendcorp.exam.config.HttpBankProperties;
+import com.ascendcorp.exam.model.TransferResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.async.AsyncExecRuntime;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+
+// gateway ไปธนาคารจริงผ่าน HTTP เปิดด้วย profile "http" (แทน BankProxyGateway ตัว echo)
+// แต่ละธนาคารมี client + connection pool ของตัวเอง connection ถูกเก็บไว้ใช้ซ้ำ (keep-alive) ไม่ต้องเสียเวลา
+// connect / TLS handshake ทุก request และธนาคารที่ช้าจนใช้ connection หมดจะไม่แย่ง pool ของธนาคารอื่น
+// request/response เป็น JSON ของ TransferResponse, ส่งแบบ async ไม่จอง thread ระหว่างรอธนาคาร
+@Component
+@Primary
+@Profile("http")
+public class HttpBankProxyGateway extends BankProxyGateway implements MeterBinder {
+
+    final static Logger log = LogManager.getLogger(HttpBankProxyGateway.class);
+
+    private static final String EXEC_RUNTIME = HttpBankProxyGateway.class.getName() + ".execRuntime";
+
+    private final HttpBankProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Map<String, BankClient> clients = new ConcurrentHashMap<>();
+
+    @Autowired
+    public HttpBankProxyGateway(HttpBankProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        // สร้าง pool ของทุกธนาคารตอน start จำนวน client จึงเท่ากับจำนวนธนาคารใน config เสมอ
+        properties.getBanks().forEach((bankCode, bank) -> clients.put(bankCode, new BankClient(bankCode, bank)));
+    }
+
+    @Override
+    public TransferResponse requestTransfer(TransferResponse transferResponse) {
+        try {
+            return requestTransferAsync(transferResponse).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<TransferResponse> requestTransferAsync(TransferResponse transferResponse) {
+        CompletableFuture<TransferResponse> future = new CompletableFuture<>();
+        BankClient client = clients.get(transferResponse.getBankCode());
+        if (client == null) {
+            future.completeExceptionally(new IllegalStateException(
+                    "No HTTP endpoint configured for bank " + transferResponse.getBankCode()));
+            return future;
+        }
+
+        SimpleHttpRequest request;
+        try {
+            request = SimpleRequestBuilder.post(client.uri)
+                    .setBody(objectMapper.writeValueAsBytes(transferResponse), ContentType.APPLICATION_JSON)
+                    .build();
+        } catch (IOException e) {
+            future.completeExceptionally(new IllegalArgumentException("Unable to serialize request", e));
+            return future;
+        }
+
+        HttpClientContext context = HttpClientContext.create();
+        Future<SimpleHttpResponse> exchange = client.http.execute(request, context, new FutureCallback<SimpleHttpResponse>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                try {
+                    future.complete(readResponse(client.bankCode, response));
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                future.completeExceptionally(e instanceof InterruptedIOException
+                        ? new BankTimeoutException("Bank " + client.bankCode + " timed out: " + e.getMessage())
+                        : new IllegalStateException("Bank " + client.bankCode + " request failed: " + e.getMessage(), e));
+            }
+
+            @Override
+            public void cancelled() {
+                future.cancel(false);
+            }
+        });
+        // ผู้เรียกยกเลิก (เช่น hedge อีกตัวชนะ) ให้ยกเลิก exchange ด้วย connection จะถูกปิดและคืนที่ใน pool ทันที
+        // ไม่ต้องรอธนาคารตอบ: cancel ของ exchange ยกเลิกได้แค่ช่วงรอ connection (httpclient 5.1 เอา lease ทับ dependency
+        // ของ exchange ที่ส่งไปแล้ว) จึงต้อง discard endpoint ที่ interceptor เก็บไว้เองด้วย
+        future.whenComplete((response, e) -> {
+            if (future.isCancelled()) {
+                exchange.cancel(true);
+                AsyncExecRuntime runtime = (AsyncExecRuntime) context.getAttribute(EXEC_RUNTIME);
+                if (runtime != null) {
+                    runtime.discardEndpoint();
+                }
+            }
+        });
+        return future;
+    }
+
+    private TransferResponse readResponse(String bankCode, SimpleHttpResponse response) {
+        if (response.getCode() < 200 || response.getCode() >= 300) {
+            throw new IllegalStateException("Bank " + bankCode + " returned HTTP " + response.getCode());
+        }
+        try {
+            return objectMapper.readValue(response.getBodyBytes(), TransferResponse.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Bank " + bankCode + " returned an unreadable response", e);
+        }
+    }
+
+    // pool stats ต่อธนาคาร tag bankCode มีเท่าจำนวนธนาคารใน config
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        clients.values().forEach(client -> {
+            Gauge.builder("bank.http.pool.leased", client, c -> c.stats().getLeased())
+                    .description("Connections currently in use")
+                    .tag("bankCode", client.bankCode)
+                    .register(registry);
+            Gauge.builder("bank.http.pool.pending", client, c -> c.stats().getPending())
+                    .description("Requests waiting for a connection")
+                    .tag("bankCode", client.bankCode)
+                    .register(registry);
+            Gauge.builder("bank.http.pool.idle", client, c -> c.stats().getAvailable())
+                    .description("Open connections kept alive for reuse")
+                    .tag("bankCode", client.bankCode)
+                    .register(registry);
+            Gauge.builder("bank.http.pool.max", client, c -> c.stats().getMax())
+                    .description("Maximum connections to the bank")
+                    .tag("bankCode", client.bankCode)
+                    .register(registry);
+        });
+    }
+
+    public PoolStats getPoolStats(String bankCode) {
+        BankClient client = clients.get(bankCode);
+        return client != null ? client.stats() : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.values().forEach(client -> client.http.close(CloseMode.GRACEFUL));
+    }
+
+    private final class BankClient {
+
+        final String bankCode;
+        final String uri;
+        final PoolingAsyncClientConnectionManager connectionManager;
+        final CloseableHttpAsyncClient http;
+
+        BankClient(String bankCode, HttpBankProperties.Bank bank) {
+            this.bankCode = bankCode;
+            this.uri = bank.getUrl() + properties.getPath();
+
+            int maxConnections = bank.getMaxConnections() != null ? bank.getMaxConnections() : properties.getMaxConnections();
+            Duration connectTimeout = bank.getConnectTimeout() != null ? bank.getConnectTimeout() : properties.getConnectTimeout();
+            Duration responseTimeout = bank.getResponseTimeout() != null ? bank.getResponseTimeout() : properties.getResponseTimeout();
+            boolean http2 = bank.getHttp2() != null ? bank.getHttp2() : properties.isHttp2();
+
+            // ทุก request ของธนาคารนี้ไป host เดียว per-route กับ total จึงเท่ากัน
+            this.connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                    .setMaxConnTotal(maxConnections)
+                    .setMaxConnPerRoute(maxConnections)
+                    .setConnectionTimeToLive(TimeValue.ofMilliseconds(properties.getTimeToLive().toMillis()))
+                    .build();
+
+            this.http = HttpAsyncClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setVersionPolicy(http2 ? HttpVersionPolicy.NEGOTIATE : HttpVersionPolicy.FORCE_HTTP_1)
+                    .setIOReactorConfig(IOReactorConfig.custom()
+                            .setIoThreadCount(Math.max(1, properties.getIoThreads()))
+                            .build())
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                            .setResponseTimeout(Timeout.ofMilliseconds(responseTimeout.toMillis()))
+                            .setConnectionKeepAlive(TimeValue.ofMilliseconds(properties.getKeepAlive().toMillis()))
+                            .build())
+                    .evictIdleConnections(TimeValue.ofMilliseconds(properties.getMaxIdle().toMillis()))
+                    .evictExpiredConnections()
+                    // เก็บ endpoint ของ exchange ไว้ใน context ให้ requestTransferAsync ปิดได้ตอนผู้เรียกยกเลิก
+                    // ถ้ายกเลิกไปก่อนมาถึงตรงนี้ ปิดเลยไม่ต้องส่ง
+                    .addExecInterceptorBefore(ChainElement.MAIN_TRANSPORT.name(), "exec-runtime", (request, entityProducer, scope, chain, callback) -> {
+                        scope.clientContext.setAttribute(EXEC_RUNTIME, scope.execRuntime);
+                        if (scope.cancellableDependency.isCancelled()) {
+                            scope.execRuntime.discardEndpoint();
+                            return;
+                        }
+                        chain.proceed(request, entityProducer, scope, callback);
+                    })
+                    .build();
+            this.http.start();
+            log.info("HTTP client for bank {} at {} maxConnections={} http2={}", bankCode, uri, maxConnections, http2);
+        }
+
+        PoolStats stats() {
+            return connectionManager.getTotalStats();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ascendcorp.exam.proxy;
+
+import java.util.Arrays;
+
+// เก็บ latency ล่าสุด windowSize ค่า และคำนวณ percentile ใหม่ทุก ๆ RECOMPUTE_EVERY sample
+// ไม่ sort ทุก request
+public class LatencyWindow {
+
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final long[] samples;
+    private final double percentile;
+    private final int minSamples;
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private volatile long percentileNanos = -1;
+
+    public LatencyWindow(int windowSize, double percentile, int minSamples) {
+        this.samples = new long[Math.max(1, windowSize)];
+        this.percentile = percentile;
+        this.minSamples = Math.max(1, Math.min(minSamples, this.samples.length));
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        if (count >= minSamples && (++sinceRecompute >= RECOMPUTE_EVERY || percentileNanos < 0)) {
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * count) - 1;
+            percentileNanos = sorted[Math.max(0, Math.min(count - 1, index))];
+        }
+    }
+
+    // -1 ถ้ายังมี sample ไม่พอ
+    public long getPercentileNanos() {
+        return percentileNanos;
+    }
+}
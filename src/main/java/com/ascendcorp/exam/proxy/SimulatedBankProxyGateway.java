@@ -0,0 +1,178 @@
+package com.ascendcorp.exam.proxy;
+
+import com.ascendcorp.exam.config.SimulatedBankProperties;
+import com.ascendcorp.exam.model.TransferResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ธนาคารจำลองสำหรับ load test / benchmark เปิดด้วย profile "simulated" (แทน BankProxyGateway ตัว echo)
+// สุ่ม latency ตาม distribution, สุ่ม responseCode ตามน้ำหนักใน mix พร้อม description รูปแบบเดียวกับธนาคารจริง
+// จำกัด throughput ด้วยคิวแบบ slot: call ที่เกิน maxTps ต้องรอคิว รวมเวลารอแล้วเกิน timeout จะได้ BankTimeoutException
+// path async ใช้ scheduler complete future เมื่อครบเวลา ไม่จอง thread ระหว่างรอ
+@Component
+@Primary
+@Profile("simulated")
+public class SimulatedBankProxyGateway extends BankProxyGateway {
+
+    private static final String[] APPROVED = {"Transaction approved"};
+    private static final String[] INVALID_DATA = {
+            "400:IV01:Invalid Account Number", "401:IV02:Account Closed", "402:IV03:Account Name Mismatch"};
+    private static final String[] TRANSACTION_ERROR = {
+            "500:TX01:Insufficient funds", "501:TX02:Daily Limit Exceeded", "98:Transaction Failed",
+            "97:TX03:Core Banking Busy"};
+    private static final String[] UNKNOWN = {"501:Unknown Error", "502:Core Banking No Response"};
+    private static final String[] MALFORMED = {"System error", ""};
+
+    private final SimulatedBankProperties properties;
+    private final ScheduledExecutorService scheduler;
+    private final long timeoutNanos;
+    private final long maxLatencyNanos;
+    private final long slotIntervalNanos;
+    private final AtomicLong nextSlot = new AtomicLong();
+
+    // น้ำหนักสะสมของ approved, invalid_data, transaction_error, unknown
+    private final double[] cumulativeMix = new double[4];
+
+    @Autowired
+    public SimulatedBankProxyGateway(SimulatedBankProperties properties) {
+        this.properties = properties;
+        this.timeoutNanos = properties.getTimeout().toNanos();
+        this.maxLatencyNanos = properties.getLatency().getMax().toNanos();
+        this.slotIntervalNanos = properties.getMaxTps() > 0 ? TimeUnit.SECONDS.toNanos(1) / properties.getMaxTps() : 0;
+        this.nextSlot.set(System.nanoTime());
+
+        SimulatedBankProperties.Mix mix = properties.getMix();
+        cumulativeMix[0] = mix.getApproved();
+        cumulativeMix[1] = cumulativeMix[0] + mix.getInvalidData();
+        cumulativeMix[2] = cumulativeMix[1] + mix.getTransactionError();
+        cumulativeMix[3] = cumulativeMix[2] + mix.getUnknown();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(1, properties.getSchedulerThreads()), r -> {
+            Thread thread = new Thread(r, "simulated-bank-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public TransferResponse requestTransfer(TransferResponse transferResponse) {
+        long delayNanos = plannedDelayNanos();
+        try {
+            TimeUnit.NANOSECONDS.sleep(Math.min(delayNanos, timeoutNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for simulated bank", e);
+        }
+        if (delayNanos > timeoutNanos) {
+            throw timeout();
+        }
+        return respond(transferResponse);
+    }
+
+    @Override
+    public CompletableFuture<TransferResponse> requestTransferAsync(TransferResponse transferResponse) {
+        long delayNanos = plannedDelayNanos();
+        CompletableFuture<TransferResponse> future = new CompletableFuture<>();
+        if (delayNanos > timeoutNanos) {
+            scheduler.schedule(() -> future.completeExceptionally(timeout()), timeoutNanos, TimeUnit.NANOSECONDS);
+        } else {
+            scheduler.schedule(() -> {
+                try {
+                    future.complete(respond(transferResponse));
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        }
+        return future;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // เวลารอคิว + latency ของธนาคาร, Long.MAX_VALUE คือธนาคารไม่ตอบ
+    long plannedDelayNanos() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (properties.getHangPercent() > 0 && random.nextDouble() * 100 < properties.getHangPercent()) {
+            return Long.MAX_VALUE;
+        }
+        return queueDelayNanos(System.nanoTime()) + sampleLatencyNanos(random);
+    }
+
+    long queueDelayNanos(long nowNanos) {
+        if (slotIntervalNanos == 0) {
+            return 0;
+        }
+        while (true) {
+            long next = nextSlot.get();
+            long slot = next - nowNanos > 0 ? next : nowNanos;
+            if (nextSlot.compareAndSet(next, slot + slotIntervalNanos)) {
+                return slot - nowNanos;
+            }
+        }
+    }
+
+    long sampleLatencyNanos(Random random) {
+        SimulatedBankProperties.Latency latency = properties.getLatency();
+        double nanos;
+        switch (latency.getDistribution()) {
+            case NORMAL:
+                nanos = latency.getMean().toNanos() + random.nextGaussian() * latency.getStdDev().toNanos();
+                break;
+            case PARETO:
+                // inverse CDF: scale / U^(1/shape), U อยู่ใน (0, 1]
+                nanos = latency.getParetoScale().toNanos() / Math.pow(1 - random.nextDouble(), 1 / latency.getParetoShape());
+                break;
+            default:
+                nanos = latency.getMean().toNanos();
+                break;
+        }
+        return (long) Math.max(0, Math.min(nanos, maxLatencyNanos));
+    }
+
+    TransferResponse respond(TransferResponse transferResponse) {
+        TransferResponse response = super.requestTransfer(transferResponse);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        String[] descriptions;
+        double pick = random.nextDouble() * cumulativeMix[3];
+        if (pick < cumulativeMix[0]) {
+            response.setResponseCode("approved");
+            descriptions = APPROVED;
+        } else if (pick < cumulativeMix[1]) {
+            response.setResponseCode("invalid_data");
+            descriptions = INVALID_DATA;
+        } else if (pick < cumulativeMix[2]) {
+            response.setResponseCode("transaction_error");
+            descriptions = TRANSACTION_ERROR;
+        } else {
+            response.setResponseCode("unknown");
+            descriptions = UNKNOWN;
+        }
+
+        if (descriptions != APPROVED && random.nextDouble() * 100 < properties.getMalformedDescriptionPercent()) {
+            descriptions = MALFORMED;
+        }
+        response.setDescription(descriptions[random.nextInt(descriptions.length)]);
+        return response;
+    }
+
+    private BankTimeoutException timeout() {
+        return new BankTimeoutException("Bank did not respond within " + properties.getTimeout().toMillis() + "ms");
+    }
+}
@@ -0,0 +1,39 @@
+package com.ascendcorp.exam.proxy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// token bucket แบบ lock-free (GCRA) เก็บ state เป็นตัวเลขเดียว คือเวลาที่ bucket จะกลับมาเต็ม (theoretical arrival time)
+// ขอ token = เลื่อนเวลานั้นไปหนึ่ง interval ด้วย CAS ถ้าเลื่อนแล้วเกิน burst ต้องรอส่วนต่าง ถ้าต้องรอนานกว่า maxWait จะไม่หัก token
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double tps, int burst, long nowNanos) {
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / tps));
+        this.burstNanos = Math.max(1, burst) * intervalNanos;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    // คืนเวลาที่ต้องรอก่อนยิง (0 = ยิงได้ทันที) หรือ -1 ถ้าต้องรอเกิน maxWaitNanos
+    public long tryAcquire(long nowNanos, long maxWaitNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = (tat - nowNanos > 0 ? tat : nowNanos) + intervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    // ตอน reload โควต้า ให้ bucket ใหม่เริ่มจาก state ของตัวเก่า จะได้ไม่ได้ burst ฟรี
+    void continueFrom(TokenBucket previous) {
+        theoreticalArrival.set(previous.theoreticalArrival.get());
+    }
+}
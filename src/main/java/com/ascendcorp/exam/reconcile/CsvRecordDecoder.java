@@ -0,0 +1,115 @@
+package com.ascendcorp.exam.reconcile;
+
+import com.ascendcorp.exam.model.Amount;
+import com.ascendcorp.exam.model.TransferResponse;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+// แปลงบรรทัด CSV เป็น TransferResponse ตาม header (ชื่อ field ของ TransferResponse ไม่สนตัวพิมพ์เล็กใหญ่ column อื่นข้าม)
+// รองรับค่าที่ครอบด้วย "..." (มี , ข้างในได้ "" = ") แต่ไม่รองรับขึ้นบรรทัดใหม่ในค่า เพราะ chunk ตัดที่ขึ้นบรรทัดใหม่
+// ค่าว่าง = null, tranDateTime ใช้ pattern เดียวกับ @JsonFormat ของ TransferResponse (UTC เหมือน Jackson)
+// ไม่ thread-safe (SimpleDateFormat) สร้างใหม่ต่อ chunk
+final class CsvRecordDecoder {
+
+    private enum Column {
+        BANK_TRANSACTION_ID, RESPONSE_CODE, TRAN_DATE_TIME, CHANNEL, LOCATION_CODE, BANK_CODE, BANK_NUMBER,
+        DESCRIPTION, REFERENCE_CODE1, REFERENCE_CODE2, AMOUNT, FIRST_NAME, LAST_NAME, IGNORED;
+
+        static Column of(String header) {
+            String name = header.trim().replace("_", "").toLowerCase(Locale.ROOT);
+            for (Column column : values()) {
+                if (column.name().replace("_", "").toLowerCase(Locale.ROOT).equals(name)) {
+                    return column;
+                }
+            }
+            return IGNORED;
+        }
+    }
+
+    private final Column[] columns;
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+
+    CsvRecordDecoder(String header) {
+        List<String> names = new ArrayList<>();
+        split(header, names, new StringBuilder());
+        columns = new Column[names.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = Column.of(names.get(i));
+        }
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+    }
+
+    TransferResponse decode(String line) {
+        split(line, fields, field);
+        TransferResponse record = new TransferResponse();
+        for (int i = 0; i < columns.length && i < fields.size(); i++) {
+            String value = fields.get(i);
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (columns[i]) {
+                case BANK_TRANSACTION_ID: record.setBankTransactionID(value); break;
+                case RESPONSE_CODE: record.setResponseCode(value); break;
+                case TRAN_DATE_TIME: record.setTranDateTime(parseDate(value)); break;
+                case CHANNEL: record.setChannel(value); break;
+                case LOCATION_CODE: record.setLocationCode(value); break;
+                case BANK_CODE: record.setBankCode(value); break;
+                case BANK_NUMBER: record.setBankNumber(value); break;
+                case DESCRIPTION: record.setDescription(value); break;
+                case REFERENCE_CODE1: record.setReferenceCode1(value); break;
+                case REFERENCE_CODE2: record.setReferenceCode2(value); break;
+                case AMOUNT: record.setAmount(Amount.parse(value)); break;
+                case FIRST_NAME: record.setFirstName(value); break;
+                case LAST_NAME: record.setLastName(value); break;
+                default: break;
+            }
+        }
+        return record;
+    }
+
+    private Date parseDate(String value) {
+        try {
+            return dateFormat.parse(value);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("tranDateTime must be yyyy-MM-dd: " + value);
+        }
+    }
+
+    private static void split(String line, List<String> out, StringBuilder field) {
+        out.clear();
+        field.setLength(0);
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                out.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        out.add(field.toString());
+    }
+}
@@ -0,0 +1,106 @@
+package com.ascendcorp.exam.reconcile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+// ไฟล์ข้อความ append-only บรรทัดแรกบอกว่า checkpoint นี้ของ input / การแบ่ง chunk แบบไหน
+// บรรทัดต่อไป "<chunk> <ความยาวไฟล์ output หลังเขียนผลของ chunk นั้น>" เขียนหลัง fsync ผลของ chunk ลง output แล้วเท่านั้น
+// resume: chunk ที่อยู่ใน checkpoint ข้าม ตัด output กลับไปที่ความยาวล่าสุดที่บันทึก (ทิ้งผลที่เขียนไม่จบตอน crash)
+// บรรทัดท้ายที่เขียนไม่ครบ (เครื่องดับกลางบรรทัด) ไม่นับ
+final class ReconciliationCheckpoint implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final BitSet completed;
+    private final long outputLength;
+
+    private ReconciliationCheckpoint(FileChannel channel, BitSet completed, long outputLength) {
+        this.channel = channel;
+        this.completed = completed;
+        this.outputLength = outputLength;
+    }
+
+    static ReconciliationCheckpoint open(Path file, String plan) throws IOException {
+        BitSet completed = new BitSet();
+        long outputLength = 0;
+        long validLength = 0;
+        if (Files.exists(file)) {
+            byte[] content = Files.readAllBytes(file);
+            // เอาเฉพาะบรรทัดที่มี \n ปิดท้ายแล้ว
+            int lineStart = 0;
+            for (int i = 0; i < content.length; i++) {
+                if (content[i] != '\n') {
+                    continue;
+                }
+                String line = new String(content, lineStart, i - lineStart, StandardCharsets.UTF_8);
+                if (lineStart == 0) {
+                    if (!line.equals(plan)) {
+                        throw new IllegalStateException("Checkpoint " + file + " was written for a different input or chunk size ("
+                                + line + "); remove it together with the output to start over");
+                    }
+                } else {
+                    String[] parts = line.split(" ");
+                    if (parts.length != 2) {
+                        break;
+                    }
+                    try {
+                        int chunk = Integer.parseInt(parts[0]);
+                        outputLength = Math.max(outputLength, Long.parseLong(parts[1]));
+                        completed.set(chunk);
+                    } catch (NumberFormatException e) {
+                        break;
+                    }
+                }
+                lineStart = i + 1;
+                validLength = lineStart;
+            }
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (validLength == 0) {
+            // ไฟล์ใหม่ เขียนบรรทัดแรก
+            channel.truncate(0);
+            write(channel, 0, plan + "\n");
+            channel.force(false);
+        } else {
+            // ตัดบรรทัดท้ายที่เขียนไม่ครบทิ้ง ไม่อย่างนั้นบรรทัดถัดไปจะต่อท้ายเศษนั้น
+            channel.truncate(validLength);
+        }
+        return new ReconciliationCheckpoint(channel, completed, outputLength);
+    }
+
+    boolean isCompleted(int chunk) {
+        return completed.get(chunk);
+    }
+
+    int completedCount() {
+        return completed.cardinality();
+    }
+
+    long getOutputLength() {
+        return outputLength;
+    }
+
+    // ผู้เรียกต้อง fsync output ก่อน และเรียกทีละ thread (ReconciliationJob commit ภายใต้ lock)
+    void markCompleted(int chunk, long outputLength) throws IOException {
+        write(channel, channel.size(), chunk + " " + outputLength + "\n");
+        channel.force(false);
+        completed.set(chunk);
+    }
+
+    private static void write(FileChannel channel, long position, String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
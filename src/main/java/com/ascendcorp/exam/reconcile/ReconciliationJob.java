@@ -0,0 +1,381 @@
+package com.ascendcorp.exam.reconcile;
+
+import com.ascendcorp.exam.config.ReconciliationProperties;
+import com.ascendcorp.exam.model.InquiryBatchItemDTO;
+import com.ascendcorp.exam.model.ReconciliationItemDTO;
+import com.ascendcorp.exam.model.TransferResponse;
+import com.ascendcorp.exam.service.InquiryService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+// reconciliation แบบ offline: map ไฟล์ input ทั้งไฟล์ แบ่งเป็น chunk ตามขนาด (ตัดที่ขึ้นบรรทัดใหม่)
+// แต่ละ chunk เป็นงานหนึ่งงานใน fork-join pool อ่าน record จาก mapped buffer ตรงๆ แล้วยิงผ่าน InquiryService.inquiryItemAsync
+// ผลของ chunk สะสมใน buffer แล้วเขียนลง output ทีเดียวต่อ chunk (fsync) จากนั้นจึงบันทึก checkpoint
+// ดังนั้น rerun หลัง crash จะข้าม chunk ที่เสร็จแล้ว และไม่มีผลซ้ำใน output
+@Component
+public class ReconciliationJob {
+
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    @Autowired
+    private InquiryService inquiryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReconciliationProperties reconciliationProperties;
+
+    final static Logger log = LogManager.getLogger(ReconciliationJob.class);
+
+    public Map<String, Long> run() throws IOException {
+        Path input = Paths.get(reconciliationProperties.getInput());
+        Path output = StringUtils.hasText(reconciliationProperties.getOutput())
+                ? Paths.get(reconciliationProperties.getOutput())
+                : Paths.get(input + ".result.ndjson");
+        return run(input, output);
+    }
+
+    public Map<String, Long> run(Path input, Path output) throws IOException {
+        long chunkSize = reconciliationProperties.getChunkSize().toBytes();
+        if (chunkSize <= 0 || chunkSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("inquiry.reconcile.chunk-size must be between 1B and 2GB: " + chunkSize);
+        }
+        boolean csv = isCsv(input);
+        int parallelism = reconciliationProperties.getParallelism() > 0
+                ? reconciliationProperties.getParallelism() : Runtime.getRuntime().availableProcessors();
+        int window = Math.max(1, reconciliationProperties.getMaxInFlight() / parallelism);
+        // job เป็น singleton นับแยกต่อการรัน ผลที่คืนไปจึงเป็นของรอบนี้เท่านั้น
+        RunStats stats = new RunStats();
+
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = in.size();
+            long dataStart = startsWithBom(in) ? 3 : 0;
+            String header = null;
+            if (csv) {
+                long headerEnd = nextLineStart(in, dataStart, size);
+                header = readLine(in, dataStart, headerEnd);
+                dataStart = headerEnd;
+            }
+            long[] starts = chunkStarts(in, dataStart, size, chunkSize);
+
+            String plan = "# input=" + input.toAbsolutePath() + " size=" + size + " chunk=" + chunkSize
+                    + " format=" + (csv ? "csv" : "ndjson");
+            try (ReconciliationCheckpoint checkpoint = ReconciliationCheckpoint.open(
+                    Paths.get(output + CHECKPOINT_SUFFIX), plan);
+                 FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+
+                // output สั้นกว่าที่ checkpoint บันทึกไว้ (ถูกลบหรือตัดทิ้ง) ผลของ chunk ที่จะข้ามหายไปแล้ว
+                // เขียนต่อที่ตำแหน่งเดิมจะได้ช่องว่างที่เป็น 0 กลางไฟล์ ให้เริ่มใหม่เอง
+                if (out.size() < checkpoint.getOutputLength()) {
+                    throw new IllegalStateException("Output " + output + " has " + out.size() + " bytes but checkpoint "
+                            + output + CHECKPOINT_SUFFIX + " recorded " + checkpoint.getOutputLength()
+                            + "; remove the checkpoint together with the output to start over");
+                }
+                // ตัดผลที่เขียนไปแล้วแต่ยังไม่ได้บันทึก checkpoint (crash ระหว่าง chunk) ทิ้ง
+                out.truncate(checkpoint.getOutputLength());
+                log.info("Reconciling {} ({} bytes, {} chunks, {} already done) into {} with parallelism {}",
+                        input, size, starts.length, checkpoint.completedCount(), output, parallelism);
+
+                ChunkWriter writer = new ChunkWriter(out, checkpoint);
+                List<ChunkTask> tasks = new ArrayList<>(starts.length);
+                for (int i = 0; i < starts.length; i++) {
+                    if (checkpoint.isCompleted(i)) {
+                        stats.skipped.increment();
+                        continue;
+                    }
+                    long end = i + 1 < starts.length ? starts[i + 1] : size;
+                    tasks.add(new ChunkTask(i, in, starts[i], end, header, window, writer, stats));
+                }
+
+                ForkJoinPool pool = new ForkJoinPool(parallelism, ReconciliationJob::newWorker, null, false);
+                try {
+                    pool.submit(() -> ForkJoinTask.invokeAll(tasks)).join();
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+        return stats.toMap();
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("reconcile-" + thread.getPoolIndex());
+        return thread;
+    }
+
+    private boolean isCsv(Path input) {
+        String format = reconciliationProperties.getFormat().toLowerCase(Locale.ROOT);
+        if ("auto".equals(format)) {
+            return input.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+        }
+        if (!"csv".equals(format) && !"ndjson".equals(format)) {
+            throw new IllegalArgumentException("inquiry.reconcile.format must be auto, csv or ndjson: " + format);
+        }
+        return "csv".equals(format);
+    }
+
+    private static boolean startsWithBom(FileChannel in) throws IOException {
+        ByteBuffer bom = ByteBuffer.allocate(3);
+        while (bom.hasRemaining() && in.read(bom, bom.position()) > 0) {
+            // อ่านจนครบ 3 byte หรือจบไฟล์
+        }
+        return bom.position() == 3 && bom.get(0) == (byte) 0xEF && bom.get(1) == (byte) 0xBB && bom.get(2) == (byte) 0xBF;
+    }
+
+    // จุดเริ่มของแต่ละ chunk: ทุกๆ chunkSize byte เลื่อนไปที่ต้นบรรทัดถัดไป บรรทัดที่ยาวกว่า chunk ทำให้ chunk นั้นใหญ่ขึ้น
+    static long[] chunkStarts(FileChannel in, long dataStart, long size, long chunkSize) throws IOException {
+        long[] starts = new long[16];
+        int count = 0;
+        long start = dataStart;
+        while (start < size) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+            }
+            starts[count++] = start;
+            start = nextLineStart(in, start + chunkSize - 1, size);
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    // ตำแหน่งหลัง '\n' ตัวแรกที่ตำแหน่ง from หรือหลังจากนั้น (size ถ้าไม่มี)
+    private static long nextLineStart(FileChannel in, long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = from;
+        while (position < size) {
+            ((Buffer) buffer).clear();
+            int read = in.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static String readLine(FileChannel in, long start, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        while (buffer.hasRemaining() && in.read(buffer, start + buffer.position()) > 0) {
+            // อ่านจนครบบรรทัด
+        }
+        String line = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+        return line.endsWith("\n") ? line.replaceAll("\r?\n$", "") : line;
+    }
+
+    private static final class RunStats {
+
+        final LongAdder records = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder chunks = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+
+        Map<String, Long> toMap() {
+            Map<String, Long> stats = new LinkedHashMap<>();
+            stats.put("reconcile.records", records.sum());
+            stats.put("reconcile.failed", failed.sum());
+            stats.put("reconcile.chunks", chunks.sum());
+            stats.put("reconcile.skipped", skipped.sum());
+            return stats;
+        }
+    }
+
+    // เขียนผลของ chunk ต่อท้าย output แล้ว fsync ก่อนบันทึก checkpoint ทีละ chunk
+    private static final class ChunkWriter {
+
+        private final FileChannel out;
+        private final ReconciliationCheckpoint checkpoint;
+        private long position;
+
+        ChunkWriter(FileChannel out, ReconciliationCheckpoint checkpoint) {
+            this.out = out;
+            this.checkpoint = checkpoint;
+            this.position = checkpoint.getOutputLength();
+        }
+
+        synchronized void commit(int chunk, ByteArrayOutputStream results) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(results.toByteArray());
+            while (buffer.hasRemaining()) {
+                position += out.write(buffer, position);
+            }
+            out.force(false);
+            checkpoint.markCompleted(chunk, position);
+        }
+    }
+
+    private final class ChunkTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+        private final FileChannel in;
+        private final long start;
+        private final long end;
+        private final String header;
+        private final int window;
+        private final ChunkWriter chunkWriter;
+        private final RunStats stats;
+
+        private byte[] line = new byte[1024];
+
+        ChunkTask(int index, FileChannel in, long start, long end, String header, int window, ChunkWriter chunkWriter,
+                  RunStats stats) {
+            this.index = index;
+            this.in = in;
+            this.start = start;
+            this.end = end;
+            this.header = header;
+            this.window = window;
+            this.chunkWriter = chunkWriter;
+            this.stats = stats;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                reconcile();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to reconcile chunk " + index, e);
+            }
+        }
+
+        private void reconcile() throws IOException {
+            MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            CsvRecordDecoder csvDecoder = header != null ? new CsvRecordDecoder(header) : null;
+            ObjectReader reader = objectMapper.readerFor(TransferResponse.class);
+            ObjectWriter writer = objectMapper.writerFor(ReconciliationItemDTO.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("");
+            ByteArrayOutputStream results = new ByteArrayOutputStream((int) Math.min(end - start, 1 << 20));
+            ArrayDeque<CompletableFuture<ReconciliationItemDTO>> pending = new ArrayDeque<>(window);
+
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(results)) {
+                int length = buffer.limit();
+                int lineStart = 0;
+                for (int i = 0; i <= length; i++) {
+                    if (i < length && buffer.get(i) != '\n') {
+                        continue;
+                    }
+                    int lineEnd = i;
+                    if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                        lineEnd--;
+                    }
+                    if (lineEnd > lineStart && !isBlank(buffer, lineStart, lineEnd)) {
+                        // จำนวน call ที่ค้างต่อ chunk ไม่เกิน window รอผลตัวเก่าสุดก่อนอ่าน record ถัดไป
+                        if (pending.size() >= window) {
+                            write(writer, generator, pending.poll().join());
+                        }
+                        pending.add(reconcileRecord(buffer, lineStart, lineEnd, csvDecoder, reader));
+                    }
+                    lineStart = i + 1;
+                }
+                while (!pending.isEmpty()) {
+                    write(writer, generator, pending.poll().join());
+                }
+            }
+            chunkWriter.commit(index, results);
+            stats.chunks.increment();
+            log.debug("Reconciled chunk {} [{}, {})", index, start, end);
+        }
+
+        private CompletableFuture<ReconciliationItemDTO> reconcileRecord(MappedByteBuffer buffer, int lineStart, int lineEnd,
+                                                                        CsvRecordDecoder csvDecoder, ObjectReader reader) {
+            long offset = start + lineStart;
+            int length = lineEnd - lineStart;
+            if (line.length < length) {
+                line = new byte[Math.max(length, line.length * 2)];
+            }
+            ((Buffer) buffer).position(lineStart);
+            buffer.get(line, 0, length);
+
+            TransferResponse record;
+            try {
+                record = csvDecoder != null
+                        ? csvDecoder.decode(new String(line, 0, length, StandardCharsets.UTF_8))
+                        : reader.readValue(line, 0, length);
+            } catch (JsonProcessingException e) {
+                return CompletableFuture.completedFuture(invalidRecord(offset, e.getOriginalMessage()));
+            } catch (IOException | IllegalArgumentException e) {
+                return CompletableFuture.completedFuture(invalidRecord(offset, e.getMessage()));
+            }
+
+            return inquiryService.inquiryItemAsync(0, record)
+                    .thenApply(item -> reconciliationItem(offset, record, item));
+        }
+
+        private void write(ObjectWriter writer, JsonGenerator generator, ReconciliationItemDTO item) throws IOException {
+            stats.records.increment();
+            if (item.getError() != null) {
+                stats.failed.increment();
+            }
+            writer.writeValue(generator, item);
+            generator.writeRaw('\n');
+        }
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b != ' ' && b != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ReconciliationItemDTO reconciliationItem(long offset, TransferResponse record, InquiryBatchItemDTO item) {
+        ReconciliationItemDTO result = new ReconciliationItemDTO();
+        result.setOffset(offset);
+        result.setTranId(record.getBankTransactionID());
+        result.setResult(item.getResult());
+        result.setError(item.getError());
+        return result;
+    }
+
+    private static ReconciliationItemDTO invalidRecord(long offset, String message) {
+        log.info("Unable to read reconciliation record at offset {}: {}", offset, message);
+        ReconciliationItemDTO item = new ReconciliationItemDTO();
+        item.setOffset(offset);
+        item.setError("Invalid record: " + message);
+        return item;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ascendcorp.exam.reconcile;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// รัน ReconciliationJob ตอน start เมื่อกำหนด inquiry.reconcile.input (ใช้คู่กับ profile reconcile ที่ปิด web server)
+// job ล้มเมื่อไหร่ exception จะทำให้ application start ไม่สำเร็จและ exit code ไม่เป็น 0
+@Component
+@ConditionalOnProperty(prefix = "inquiry.reconcile", name = "input")
+public class ReconciliationRunner implements ApplicationRunner {
+
+    @Autowired
+    private ReconciliationJob reconciliationJob;
+
+    final static Logger log = LogManager.getLogger(ReconciliationRunner.class);
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long startNanos = System.nanoTime();
+        Map<String, Long> stats = reconciliationJob.run();
+        log.info("Reconciliation finished in {} ms: {}", (System.nanoTime() - startNanos) / 1_000_000, stats);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ascendcorp.exam.service;
+
+// แยก description ของธนาคารที่คั่นด้วย ':' โดยไม่ใช้ String.split (ไม่สร้าง array และ substring ที่ไม่ได้ใช้)
+// จำนวน segment นับแบบเดียวกับ split(":") คือ segment ว่างท้ายสุดไม่นับ และ "" นับเป็น 1 segment
+final class DescriptionTokenizer {
+
+    private static final char SEPARATOR = ':';
+
+    private DescriptionTokenizer() {
+    }
+
+    static int segmentCount(String description) {
+        int length = description.length();
+        if (length == 0) {
+            return 1;
+        }
+
+        int end = length;
+        while (end > 0 && description.charAt(end - 1) == SEPARATOR) {
+            end--;
+        }
+        if (end == 0) {
+            return 0;
+        }
+
+        int segments = 1;
+        for (int i = 0; i < end; i++) {
+            if (description.charAt(i) == SEPARATOR) {
+                segments++;
+            }
+        }
+        return segments;
+    }
+
+    // null ถ้าไม่มี segment ที่ index นี้
+    static String segment(String description, int index) {
+        int start = segmentStart(description, index);
+        if (start < 0) {
+            return null;
+        }
+        int end = description.indexOf(SEPARATOR, start);
+        return description.substring(start, end < 0 ? description.length() : end);
+    }
+
+    static boolean segmentEqualsIgnoreCase(String description, int index, String value) {
+        int start = segmentStart(description, index);
+        if (start < 0) {
+            return false;
+        }
+        int end = description.indexOf(SEPARATOR, start);
+        int length = (end < 0 ? description.length() : end) - start;
+        return length == value.length() && description.regionMatches(true, start, value, 0, length);
+    }
+
+    // -1 ถ้า description มี separator ไม่ถึง index ตัว
+    private static int segmentStart(String description, int index) {
+        int start = 0;
+        for (int i = 0; i < index; i++) {
+            int separator = description.indexOf(SEPARATOR, start);
+            if (separator < 0) {
+                return -1;
+            }
+            start = separator + 1;
+        }
+        return start;
+    }
+}
@@ -0,0 +1,193 @@
+package com.ascendcorp.exam.service;
+
+import com.ascendcorp.exam.model.InquiryServiceResultDTO;
+import com.ascendcorp.exam.model.TransferResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// metrics ของ inquiry / gateway ส่งออกทาง actuator (/actuator/prometheus)
+// ค่า tag ที่มาจาก request (bankCode, channel, reasonCode) จำกัดจำนวนค่าไม่เกิน maxTagValues ต่อ tag
+// ค่าที่เกินจะรวมเป็น "other" จำนวน time series จึงไม่โตตาม input ของ client
+// meter แต่ละตัวสร้างครั้งเดียวแล้ว cache ไว้ hot path ไม่ต้อง lookup registry ทุก request
+// timer ที่มี percentile histogram (~70 bucket ต่อตัว) ใช้ tag ที่จำกัดค่าแค่ตัวเดียวคูณ outcome:
+// inquiry.latency แยกตาม channel, bank.gateway.latency แยกตาม bankCode อย่างละไม่เกิน (maxTagValues + 2) x 2 ตัว
+@Component
+public class InquiryMetrics {
+
+    static final String OTHER = "other";
+    static final String NONE = "none";
+    static final int MAX_TAG_LENGTH = 32;
+
+    private static final String[] BRANCHES = {"approved", "invalid_data", "transaction_error", "unknown", "unsupported"};
+
+    private final MeterRegistry registry;
+    private final BoundedTagValues bankCodes;
+    private final BoundedTagValues channels;
+    private final BoundedTagValues reasonCodes;
+
+    private final AtomicInteger inquiryInFlight = new AtomicInteger();
+    private final AtomicInteger gatewayInFlight = new AtomicInteger();
+
+    private final ConcurrentHashMap<String, Timer[]> inquiryTimers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Timer[]> gatewayTimers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> reasonCounters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> validationCounters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> branchCounters = new ConcurrentHashMap<>();
+
+    public InquiryMetrics() {
+        this(new SimpleMeterRegistry(), 64);
+    }
+
+    @Autowired
+    public InquiryMetrics(MeterRegistry registry,
+                          @Value("${inquiry.metrics.max-tag-values:64}") int maxTagValues) {
+        this.registry = registry;
+        this.bankCodes = new BoundedTagValues(maxTagValues);
+        this.channels = new BoundedTagValues(maxTagValues);
+        this.reasonCodes = new BoundedTagValues(maxTagValues);
+
+        Gauge.builder("inquiry.in.flight", inquiryInFlight, AtomicInteger::get)
+                .description("Inquiries currently being processed")
+                .register(registry);
+        Gauge.builder("bank.gateway.in.flight", gatewayInFlight, AtomicInteger::get)
+                .description("Bank gateway calls currently waiting for a response")
+                .register(registry);
+        for (String branch : BRANCHES) {
+            branchCounters.put(branch, Counter.builder("inquiry.response.branch")
+                    .description("Bank responses by response code branch")
+                    .tag("branch", branch)
+                    .register(registry));
+        }
+    }
+
+    public long inquiryStarted() {
+        inquiryInFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    // result เป็น null เมื่อ inquiry จบด้วย exception
+    public void inquiryCompleted(TransferResponse transferResponse, InquiryServiceResultDTO result, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        inquiryInFlight.decrementAndGet();
+
+        String channel = channels.of(transferResponse.getChannel());
+        inquiryTimers.computeIfAbsent(channel, this::newInquiryTimers)[result != null ? 0 : 1]
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        if (result != null) {
+            String reasonCode = reasonCodes.of(result.getReasonCode());
+            reasonCounters.computeIfAbsent(reasonCode, this::newReasonCounter).increment();
+        }
+    }
+
+    public long gatewayStarted() {
+        gatewayInFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    public void gatewayCompleted(TransferResponse transferResponse, long startNanos, boolean error) {
+        long elapsed = System.nanoTime() - startNanos;
+        gatewayInFlight.decrementAndGet();
+
+        String bankCode = bankCodes.of(transferResponse.getBankCode());
+        gatewayTimers.computeIfAbsent(bankCode, this::newGatewayTimers)[error ? 1 : 0]
+                .record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    // field มาจาก FieldViolation ที่ประกาศไว้ใน InquiryService จำนวนค่าจึงคงที่
+    public void validationFailed(String field) {
+        validationCounters.computeIfAbsent(field, this::newValidationCounter).increment();
+    }
+
+    public void responseBranch(String branch) {
+        Counter counter = branchCounters.get(branch);
+        (counter != null ? counter : branchCounters.get("unsupported")).increment();
+    }
+
+    private Timer[] newInquiryTimers(String channel) {
+        return new Timer[]{inquiryTimer(channel, "success"), inquiryTimer(channel, "error")};
+    }
+
+    private Timer inquiryTimer(String channel, String outcome) {
+        return Timer.builder("inquiry.latency")
+                .description("End-to-end inquiry latency")
+                .tag("channel", channel)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Timer[] newGatewayTimers(String bankCode) {
+        return new Timer[]{gatewayTimer(bankCode, "success"), gatewayTimer(bankCode, "error")};
+    }
+
+    private Timer gatewayTimer(String bankCode, String outcome) {
+        return Timer.builder("bank.gateway.latency")
+                .description("Bank gateway round-trip time")
+                .tag("bankCode", bankCode)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Counter newReasonCounter(String reasonCode) {
+        return Counter.builder("inquiry.results")
+                .description("Inquiry results by mapped reason code")
+                .tag("reasonCode", reasonCode)
+                .register(registry);
+    }
+
+    private Counter newValidationCounter(String field) {
+        return Counter.builder("inquiry.validation.failures")
+                .description("Rejected requests by invalid field")
+                .tag("field", field)
+                .register(registry);
+    }
+
+    // รับค่าใหม่ได้ไม่เกิน maxValues ค่า หลังจากนั้นค่าที่ไม่เคยเห็นคืน OTHER
+    static final class BoundedTagValues {
+
+        private final int maxValues;
+        private final Set<String> values = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger size = new AtomicInteger();
+
+        BoundedTagValues(int maxValues) {
+            this.maxValues = maxValues;
+        }
+
+        String of(String value) {
+            if (value == null || value.isEmpty()) {
+                return NONE;
+            }
+            if (values.contains(value)) {
+                return value;
+            }
+            if (value.length() > MAX_TAG_LENGTH) {
+                return OTHER;
+            }
+            // จองที่ก่อน add ให้จำนวนค่าไม่เกิน maxValues แม้หลาย thread เจอค่าใหม่พร้อมกัน
+            while (true) {
+                int current = size.get();
+                if (current >= maxValues) {
+                    return values.contains(value) ? value : OTHER;
+                }
+                if (size.compareAndSet(current, current + 1)) {
+                    if (!values.add(value)) {
+                        size.decrementAndGet();
+                    }
+                    return value;
+                }
+            }
+        }
+    }
+}
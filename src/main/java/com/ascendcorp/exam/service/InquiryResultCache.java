@@ -0,0 +1,90 @@
+package com.ascendcorp.exam.service;
+
+import com.ascendcorp.exam.config.ResponseCodeProperties.Handler;
+import com.ascendcorp.exam.model.InquiryServiceResultDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// cache ผล inquiry ที่ธนาคารตอบเป็นผลสุดท้ายแล้ว (code ที่ ResponseCodeTable ส่งไป handler APPROVED / INVALID_DATA)
+// ผลพวกนี้ถามซ้ำก็ได้คำตอบเดิม TRANSACTION_ERROR / UNKNOWN ยังเปลี่ยนได้ ห้าม cache
+// Caffeine ใช้ W-TinyLFU ในการเลือก entry ที่จะ evict เมื่อเกิน maxSize
+@Component
+public class InquiryResultCache {
+
+    private final ResponseCodeTable responseCodeTable;
+    private final Cache<TransactionKey, InquiryServiceResultDTO> cache;
+
+    public InquiryResultCache() {
+        this(new ResponseCodeTable(), false, 0, Duration.ZERO);
+    }
+
+    @Autowired
+    public InquiryResultCache(ResponseCodeTable responseCodeTable,
+                              @Value("${inquiry.cache.enabled:false}") boolean enabled,
+                              @Value("${inquiry.cache.max-size:100000}") long maxSize,
+                              @Value("${inquiry.cache.ttl:10m}") Duration ttl) {
+        this.responseCodeTable = responseCodeTable;
+        this.cache = enabled
+                ? Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(ttl.toNanos(), TimeUnit.NANOSECONDS)
+                        .recordStats()
+                        .build()
+                : null;
+    }
+
+    // DTO แก้ไขได้ (@Data) เก็บและคืนเป็นสำเนา ผู้เรียกแก้ผลที่ได้ไปแล้วไม่กระทบ entry ใน cache หรือ request อื่น
+    public InquiryServiceResultDTO get(TransactionKey key) {
+        InquiryServiceResultDTO cached = cache != null ? cache.getIfPresent(key) : null;
+        return cached != null ? copy(cached) : null;
+    }
+
+    public void put(TransactionKey key, String responseCode, InquiryServiceResultDTO result) {
+        if (cache != null && isFinal(responseCode)) {
+            cache.put(key, copy(result));
+        }
+    }
+
+    // Amount เป็น immutable ใช้ reference เดิมได้
+    private static InquiryServiceResultDTO copy(InquiryServiceResultDTO result) {
+        InquiryServiceResultDTO copy = new InquiryServiceResultDTO();
+        copy.setTranID(result.getTranID());
+        copy.setNamespace(result.getNamespace());
+        copy.setReasonCode(result.getReasonCode());
+        copy.setReasonDesc(result.getReasonDesc());
+        copy.setBalance(result.getBalance());
+        copy.setRef_no1(result.getRef_no1());
+        copy.setRef_no2(result.getRef_no2());
+        copy.setAmount(result.getAmount());
+        copy.setAccountName(result.getAccountName());
+        return copy;
+    }
+
+    // ใช้ตารางเดียวกับที่ InquiryService ใช้ตอบ code ที่ map เพิ่มใน config (หรือ reload) จึง cache ตามไปด้วย
+    boolean isFinal(String responseCode) {
+        ResponseCodeTable.Entry entry = responseCodeTable.lookup(responseCode);
+        return entry != null
+                && (entry.getHandler() == Handler.APPROVED || entry.getHandler() == Handler.INVALID_DATA);
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        if (cache != null) {
+            CacheStats cacheStats = cache.stats();
+            stats.put("cache.hits", cacheStats.hitCount());
+            stats.put("cache.misses", cacheStats.missCount());
+            stats.put("cache.evictions", cacheStats.evictionCount());
+            stats.put("cache.size", cache.estimatedSize());
+        }
+        return stats;
+    }
+}
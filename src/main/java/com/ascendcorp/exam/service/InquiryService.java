@@ -1,74 +1,417 @@
 package com.ascendcorp.exam.service;
 
+import com.ascendcorp.exam.config.ResponseCodeProperties.Handler;
+import com.ascendcorp.exam.journal.InquiryJournal;
+import com.ascendcorp.exam.model.FieldViolation;
+import com.ascendcorp.exam.model.InquiryBatchItemDTO;
 import com.ascendcorp.exam.model.InquiryServiceResultDTO;
 import com.ascendcorp.exam.model.TransferResponse;
+import com.ascendcorp.exam.proxy.BankCallGuard;
 import com.ascendcorp.exam.proxy.BankProxyGateway;
-import org.apache.log4j.Logger;
+import com.ascendcorp.exam.proxy.BankRateLimiter;
+import com.ascendcorp.exam.proxy.BankRequestHedger;
+import com.ascendcorp.exam.proxy.BankUnavailableException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.StringMapMessage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
 @Service
 public class InquiryService {
 
     @Autowired
     private BankProxyGateway bankProxyGateway;
 
-    final static Logger log = Logger.getLogger(InquiryService.class);
+    @Autowired
+    private InquiryResultCache inquiryResultCache;
+
+    @Autowired
+    private BankCallGuard bankCallGuard;
+
+    @Autowired
+    private BankRequestHedger bankRequestHedger;
+
+    @Autowired
+    private BankRateLimiter bankRateLimiter;
+
+    @Autowired
+    private InquiryMetrics inquiryMetrics;
+
+    @Autowired
+    private ResponseCodeTable responseCodeTable;
+
+    @Autowired
+    private InquiryJournal inquiryJournal;
+
+    @Value("${inquiry.batch.parallelism:16}")
+    private int batchParallelism = 16;
+
+    @Value("${inquiry.dedup.enabled:true}")
+    private boolean dedupEnabled;
+
+    private final SingleFlight<TransactionKey, TransferResponse> bankSingleFlight = new SingleFlight<>();
+
+    final static Logger log = LogManager.getLogger(InquiryService.class);
+
+    private static final String REQUIRED = "required";
+
+    private static final FieldViolation TRANSACTION_ID_REQUIRED =
+            new FieldViolation("bankTransactionID", REQUIRED, "Transaction id Invalid Data");
+    private static final FieldViolation RESPONSE_CODE_REQUIRED =
+            new FieldViolation("responseCode", REQUIRED, "Response Code is required!");
+    private static final FieldViolation TRAN_DATE_TIME_REQUIRED =
+            new FieldViolation("tranDateTime", REQUIRED, "Transaction DateTime is required!");
+    private static final FieldViolation CHANNEL_REQUIRED =
+            new FieldViolation("channel", REQUIRED, "Channel is required!");
+    private static final FieldViolation LOCATION_CODE_REQUIRED =
+            new FieldViolation("locationCode", REQUIRED, "locationCode is required!");
+    private static final FieldViolation BANK_CODE_REQUIRED =
+            new FieldViolation("bankCode", REQUIRED, "Bank Code is required!");
+    private static final FieldViolation BANK_NUMBER_REQUIRED =
+            new FieldViolation("bankNumber", REQUIRED, "Bank Number is required!");
+    private static final FieldViolation AMOUNT_NOT_POSITIVE =
+            new FieldViolation("amount", "must_be_positive", "Amount must more than zero!");
+    private static final FieldViolation FIRST_NAME_REQUIRED =
+            new FieldViolation("firstName", REQUIRED, "FirstName is required!");
+    private static final FieldViolation LAST_NAME_REQUIRED =
+            new FieldViolation("lastName", REQUIRED, "LastName is required!");
 
     // Class นี้ มี improve แยกกรณีที่ Function มี if else ตั้งแต่ 2 step ขึ้นไป ไปเป็นอีกฟังก์ชันหนึ่งไว้เรียกใช้ จะได้ดู clean ขึ้น
     // และเปลี่ยนจาก parameter รายตัว เป็นทั้ง model เผื่อว่าอนาคตจะมี field อื่นเพิ่ม
     public InquiryServiceResultDTO inquiry(TransferResponse transferResponse)
     {
-        log.info("validate request parameters");
         validateRequest(transferResponse);
 
-        log.info("call bank web service");
-        TransferResponse response = bankProxyGateway.requestTransfer(transferResponse);
+        long start = inquiryMetrics.inquiryStarted();
+        InquiryServiceResultDTO result = null;
+        try {
+            result = inquiryBank(transferResponse);
+            return result;
+        } finally {
+            inquiryCompleted(transferResponse, result, start);
+        }
+    }
+
+    // เหมือน inquiry() แต่ไม่ block thread ระหว่างรอธนาคาร validate ยังโยน exception ทันทีเหมือนเดิม
+    public CompletableFuture<InquiryServiceResultDTO> inquiryAsync(TransferResponse transferResponse)
+    {
+        validateRequest(transferResponse);
+
+        long start = inquiryMetrics.inquiryStarted();
+        return timedInquiryBankAsync(transferResponse, start);
+    }
+
+    private CompletableFuture<InquiryServiceResultDTO> timedInquiryBankAsync(TransferResponse transferResponse, long start) {
+        CompletableFuture<InquiryServiceResultDTO> result;
+        try {
+            result = inquiryBankAsync(transferResponse);
+        } catch (RuntimeException e) {
+            inquiryCompleted(transferResponse, null, start);
+            throw e;
+        }
+        return result.whenComplete((respDTO, e) -> inquiryCompleted(transferResponse, respDTO, start));
+    }
+
+    private void inquiryCompleted(TransferResponse transferResponse, InquiryServiceResultDTO result, long start) {
+        inquiryMetrics.inquiryCompleted(transferResponse, result, start);
+        inquiryJournal.append(result);
+        logInquiry(transferResponse, result, start);
+    }
+
+    // หนึ่ง event ต่อหนึ่ง inquiry แบบ key/value ถ้า level debug ปิดอยู่จะไม่สร้าง message เลย
+    private static void logInquiry(TransferResponse transferResponse, InquiryServiceResultDTO result, long startNanos) {
+        if (log.isDebugEnabled()) {
+            log.debug(new StringMapMessage(8)
+                    .with("event", "inquiry")
+                    .with("tranId", transferResponse.getBankTransactionID())
+                    .with("bankCode", transferResponse.getBankCode())
+                    .with("channel", transferResponse.getChannel())
+                    .with("reasonCode", result != null ? result.getReasonCode() : "error")
+                    .with("latencyMicros", (System.nanoTime() - startNanos) / 1000));
+        }
+    }
+
+    // ยิงไปธนาคารพร้อมกันได้ไม่เกิน batchParallelism รายการ รายการที่ validate ไม่ผ่านหรือธนาคารตอบ error
+    // จะได้ error ของรายการนั้นกลับไป ไม่ทำให้ทั้ง batch ล้ม ผลลัพธ์เรียงตามลำดับของ request
+    public List<InquiryBatchItemDTO> inquiryBatch(List<TransferResponse> transferResponses)
+    {
+        Semaphore permits = new Semaphore(batchParallelism);
+        List<CompletableFuture<InquiryBatchItemDTO>> futures = new ArrayList<>(transferResponses.size());
+        for (int i = 0; i < transferResponses.size(); i++) {
+            futures.add(inquiryBatchItem(i, transferResponses.get(i), permits));
+        }
+
+        List<InquiryBatchItemDTO> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<InquiryBatchItemDTO> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    // ผลของหนึ่งรายการแบบไม่ block ใช้กับ endpoint reactive ที่จำกัดจำนวน call พร้อมกันเอง
+    public CompletableFuture<InquiryBatchItemDTO> inquiryItemAsync(int index, TransferResponse transferResponse) {
+        try {
+            validateRequest(transferResponse);
+            return timedInquiryBankAsync(transferResponse, inquiryMetrics.inquiryStarted())
+                    .handle((result, e) -> e == null ? batchItemResult(index, result) : batchItemError(index, e));
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(batchItemError(index, e));
+        }
+    }
+
+    private CompletableFuture<InquiryBatchItemDTO> inquiryBatchItem(int index, TransferResponse transferResponse,
+                                                                   Semaphore permits) {
+        try {
+            validateRequest(transferResponse);
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(batchItemError(index, e));
+        }
+
+        permits.acquireUninterruptibly();
+        CompletableFuture<InquiryServiceResultDTO> call;
+        try {
+            call = timedInquiryBankAsync(transferResponse, inquiryMetrics.inquiryStarted());
+        } catch (RuntimeException e) {
+            permits.release();
+            return CompletableFuture.completedFuture(batchItemError(index, e));
+        }
+
+        return call.whenComplete((result, e) -> permits.release())
+                .handle((result, e) -> e == null ? batchItemResult(index, result) : batchItemError(index, e));
+    }
+
+    private InquiryServiceResultDTO inquiryBank(TransferResponse transferResponse) {
+        TransactionKey key = TransactionKey.of(transferResponse);
+        InquiryServiceResultDTO cached = inquiryResultCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        TransferResponse response;
+        try {
+            response = requestBank(key, transferResponse);
+        } catch (BankUnavailableException e) {
+            return bankUnavailable(transferResponse, e);
+        }
+        InquiryServiceResultDTO result = processResponse(response);
+        inquiryResultCache.put(key, response.getResponseCode(), result);
+        return result;
+    }
+
+    private CompletableFuture<InquiryServiceResultDTO> inquiryBankAsync(TransferResponse transferResponse) {
+        TransactionKey key = TransactionKey.of(transferResponse);
+        InquiryServiceResultDTO cached = inquiryResultCache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        return requestBankAsync(key, transferResponse).handle((response, e) -> {
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof BankUnavailableException) {
+                    return bankUnavailable(transferResponse, (BankUnavailableException) cause);
+                }
+                throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+            }
+            InquiryServiceResultDTO result = processResponse(response);
+            inquiryResultCache.put(key, response.getResponseCode(), result);
+            return result;
+        });
+    }
+
+    // request ที่ transaction key เดียวกันเข้ามาซ้อนกันระหว่างรอธนาคาร จะรวมเป็น call เดียวแล้วแชร์ผลลัพธ์กัน
+    // call ที่ออกไปจริงผ่าน bulkhead / circuit breaker ของธนาคารนั้น
+    private TransferResponse requestBank(TransactionKey key, TransferResponse transferResponse) {
+        if (!dedupEnabled) {
+            return guardedRequest(transferResponse);
+        }
+        return bankSingleFlight.execute(key, () -> guardedRequest(transferResponse));
+    }
 
-        return processResponse(response);
+    private CompletableFuture<TransferResponse> requestBankAsync(TransactionKey key, TransferResponse transferResponse) {
+        if (!dedupEnabled) {
+            return guardedRequestAsync(transferResponse);
+        }
+        return bankSingleFlight.executeAsync(key, () -> guardedRequestAsync(transferResponse));
     }
 
+    // ธนาคาร/channel ที่เปิด hedge ต้องใช้ path async เพราะต้องรอได้สอง call พร้อมกัน
+    // rate limit อยู่นอก bulkhead ช่วงที่รอ token จึงไม่กินโควต้า call ค้างของธนาคาร และ hedge ก็ต้องใช้ token เหมือน call ปกติ
+    private TransferResponse guardedRequest(TransferResponse transferResponse) {
+        if (bankRequestHedger.isHedged(transferResponse)) {
+            return await(guardedRequestAsync(transferResponse));
+        }
+        String bankCode = transferResponse.getBankCode();
+        return bankRateLimiter.execute(bankCode,
+                () -> bankCallGuard.execute(bankCode, () -> callGateway(transferResponse)));
+    }
+
+    private CompletableFuture<TransferResponse> guardedRequestAsync(TransferResponse transferResponse) {
+        String bankCode = transferResponse.getBankCode();
+        return bankRequestHedger.execute(transferResponse, () -> bankRateLimiter.executeAsync(bankCode,
+                () -> bankCallGuard.executeAsync(bankCode, () -> callGatewayAsync(transferResponse))));
+    }
+
+    // จับเวลาเฉพาะช่วงที่อยู่ใน gateway จริง (ไม่รวมเวลารอ bulkhead)
+    private TransferResponse callGateway(TransferResponse transferResponse) {
+        long start = inquiryMetrics.gatewayStarted();
+        boolean error = true;
+        try {
+            TransferResponse response = bankProxyGateway.requestTransfer(transferResponse);
+            error = false;
+            return response;
+        } finally {
+            inquiryMetrics.gatewayCompleted(transferResponse, start, error);
+        }
+    }
+
+    private CompletableFuture<TransferResponse> callGatewayAsync(TransferResponse transferResponse) {
+        long start = inquiryMetrics.gatewayStarted();
+        CompletableFuture<TransferResponse> future;
+        try {
+            future = bankProxyGateway.requestTransferAsync(transferResponse);
+        } catch (RuntimeException e) {
+            inquiryMetrics.gatewayCompleted(transferResponse, start, true);
+            throw e;
+        }
+        // ผู้เรียก cancel ได้ (hedge) จึงคืนเป็น future แยก ให้ gatewayCompleted ถูกเรียกเสมอเมื่อ gateway จบ
+        CompletableFuture<TransferResponse> timed = new CompletableFuture<>();
+        future.whenComplete((response, e) -> {
+            inquiryMetrics.gatewayCompleted(transferResponse, start, e != null);
+            if (e != null) {
+                timed.completeExceptionally(e);
+            } else {
+                timed.complete(response);
+            }
+        });
+        timed.whenComplete((response, e) -> {
+            if (timed.isCancelled()) {
+                future.cancel(false);
+            }
+        });
+        return timed;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    // ไม่ได้ยิงไปธนาคารเลย ตอบกลับด้วย reason code ของสาเหตุทันที
+    private InquiryServiceResultDTO bankUnavailable(TransferResponse transferResponse, BankUnavailableException e) {
+        log.debug("bank call rejected tranId={} reasonCode={} reasonDesc={}",
+                transferResponse.getBankTransactionID(), e.getReasonCode(), e.getReasonDesc());
+        InquiryServiceResultDTO respDTO = new InquiryServiceResultDTO();
+        respDTO.setTranID(transferResponse.getBankTransactionID());
+        respDTO.setNamespace("testExam");
+        respDTO.setReasonCode(e.getReasonCode());
+        respDTO.setReasonDesc(e.getReasonDesc());
+        return respDTO;
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("dedup.calls", bankSingleFlight.getExecutions());
+        stats.put("dedup.merged", bankSingleFlight.getDeduplicated());
+        stats.put("dedup.inFlight", (long) bankSingleFlight.getInFlight());
+        stats.putAll(inquiryResultCache.stats());
+        stats.putAll(bankCallGuard.stats());
+        stats.putAll(bankRateLimiter.stats());
+        stats.putAll(bankRequestHedger.stats());
+        stats.putAll(inquiryJournal.stats());
+        return stats;
+    }
+
+    InquiryBatchItemDTO inquiryItem(int index, TransferResponse transferResponse) {
+        try {
+            return batchItemResult(index, inquiry(transferResponse));
+        } catch (RuntimeException e) {
+            return batchItemError(index, e);
+        }
+    }
+
+    private static InquiryBatchItemDTO batchItemResult(int index, InquiryServiceResultDTO result) {
+        InquiryBatchItemDTO item = new InquiryBatchItemDTO();
+        item.setIndex(index);
+        item.setResult(result);
+        return item;
+    }
+
+    private static InquiryBatchItemDTO batchItemError(int index, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        InquiryBatchItemDTO item = new InquiryBatchItemDTO();
+        item.setIndex(index);
+        item.setError(cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName());
+        return item;
+    }
+
+    // ตรวจทุก field ในรอบเดียวแล้วโยน RequestValidationException ที่มีทุก field ที่ผิด client จะได้แก้ทีเดียว
+    // request ที่ถูกต้องไม่มีการสร้าง object เลย FieldViolation ของแต่ละกฎสร้างไว้ล่วงหน้า
     void validateRequest(TransferResponse transferResponse) {
+        List<FieldViolation> violations = null;
         if(transferResponse.getBankTransactionID() == null) {
-            log.info("Transaction id is required!");
-            throw new NullPointerException("Transaction id Invalid Data");
+            violations = addViolation(violations, TRANSACTION_ID_REQUIRED);
         }
         if(transferResponse.getResponseCode() == null) {
-            log.info("Response Code is required!");
-            throw new NullPointerException("Response Code is required!");
+            violations = addViolation(violations, RESPONSE_CODE_REQUIRED);
         }
         if(transferResponse.getTranDateTime() == null) {
-            log.info("Transaction DateTime is required!");
-            throw new NullPointerException("Transaction DateTime is required!");
+            violations = addViolation(violations, TRAN_DATE_TIME_REQUIRED);
         }
         if(transferResponse.getChannel() == null) {
-            log.info("Channel is required!");
-            throw new NullPointerException("Channel is required!");
+            violations = addViolation(violations, CHANNEL_REQUIRED);
         }
         if(transferResponse.getLocationCode() == null) {
-            log.info("locationCode is required!");
-            throw new NullPointerException("locationCode is required!");
+            violations = addViolation(violations, LOCATION_CODE_REQUIRED);
         }
-        if(transferResponse.getBankCode() == null || transferResponse.getBankCode().equalsIgnoreCase("")) {
-            log.info("Bank Code is required!");
-            throw new NullPointerException("Bank Code is required!");
+        if(transferResponse.getBankCode() == null || transferResponse.getBankCode().isEmpty()) {
+            violations = addViolation(violations, BANK_CODE_REQUIRED);
         }
-        if(transferResponse.getBankNumber() == null || transferResponse.getBankNumber().equalsIgnoreCase("")) {
-            log.info("Bank Number is required!");
-            throw new NullPointerException("Bank Number is required!");
+        if(transferResponse.getBankNumber() == null || transferResponse.getBankNumber().isEmpty()) {
+            violations = addViolation(violations, BANK_NUMBER_REQUIRED);
         }
-        if(transferResponse.getAmount() <= 0) {
-            log.info("Amount must more than zero!");
-            throw new NullPointerException("Amount must more than zero!");
+        if(transferResponse.getAmount() == null || transferResponse.getAmount().signum() <= 0) {
+            violations = addViolation(violations, AMOUNT_NOT_POSITIVE);
         }
         if(transferResponse.getFirstName() == null) {
-            log.info("FirstName is required!");
-            throw new NullPointerException("FirstName is required!");
+            violations = addViolation(violations, FIRST_NAME_REQUIRED);
         }
         if(transferResponse.getLastName() == null) {
-            log.info("LastName is required!");
-            throw new NullPointerException("LastName is required!");
+            violations = addViolation(violations, LAST_NAME_REQUIRED);
+        }
+
+        if (violations != null) {
+            for (FieldViolation violation : violations) {
+                inquiryMetrics.validationFailed(violation.getField());
+            }
+            RequestValidationException e = new RequestValidationException(violations);
+            log.debug("invalid request tranId={} violations={}", transferResponse.getBankTransactionID(), e.getMessage());
+            throw e;
+        }
+    }
+
+    private static List<FieldViolation> addViolation(List<FieldViolation> violations, FieldViolation violation) {
+        if (violations == null) {
+            violations = new ArrayList<>(4);
         }
+        violations.add(violation);
+        return violations;
     }
 
     InquiryServiceResultDTO processResponse(TransferResponse response) {
@@ -77,31 +420,37 @@ public class InquiryService {
         if (response != null) {
             respDTO.setRef_no1(response.getReferenceCode1());
             respDTO.setRef_no2(response.getReferenceCode2());
-            respDTO.setAmount(String.valueOf(response.getAmount()));
+            // Amount เป็น immutable ใช้ instance เดียวกันทั้งสองช่อง แปลงเป็นตัวอักษรตอนเขียน response
+            respDTO.setAmount(response.getAmount());
             respDTO.setTranID(response.getBankTransactionID());
-            respDTO.setBalance(String.valueOf(response.getAmount()));
+            respDTO.setBalance(response.getAmount());
             respDTO.setNamespace("testExam");
 
-            // จากเดิมที่เราแมพแต่ละกรณีด้วย equalsIgnoreCase() ไม่ว่าค่า ResponseCode จะเข้ามาพิมพ์ใหญ่พิมพ์เล็กแค่เป็นคำที่ตรงกันก็เข้า if เปลี่ยนเป็น
-            // รับค่าเข้ามาโดยใช้ toLowerCase แล้วใช้ switch case แมพแต่ละกรณ๊ไว้เป็นตัวพิมพ์เล็กก็จะได้ผลลัพธ์เหมือนกัน ดูง่ายกว่าด้วย
+            // responseCode แมพไป handler ผ่านตารางจาก config (ไม่สนตัวพิมพ์เล็กใหญ่) code ใหม่ของธนาคารไม่ต้องแก้โค้ด
+            ResponseCodeTable.Entry entry = responseCodeTable.lookup(response.getResponseCode());
+            if (entry == null) {
+                inquiryMetrics.responseBranch("unsupported");
+                throw new IllegalArgumentException("Unsupported error reason code");
+            }
+            inquiryMetrics.responseBranch(entry.getBranch());
 
-            switch (response.getResponseCode().toLowerCase()) {
-                case "approved":
-                    respDTO.setReasonCode("200");
+            switch (entry.getHandler()) {
+                case APPROVED:
+                    respDTO.setReasonCode(entry.getReasonCode());
                     respDTO.setReasonDesc(response.getDescription());
                     respDTO.setAccountName(response.getFirstName());
                     break;
-                case "invalid_data":
-                    handleInvalidData(response, respDTO);
+                case INVALID_DATA:
+                    handleInvalidData(response, respDTO, entry.getReasonCode(), entry.getReasonDesc());
                     break;
-                case "transaction_error":
-                    handleTransactionError(response, respDTO);
+                case TRANSACTION_ERROR:
+                    handleTransactionError(response, respDTO, entry.getReasonCode(), entry.getReasonDesc());
                     break;
-                case "unknown":
-                    handleUnknownError(response, respDTO);
+                case UNKNOWN:
+                    handleUnknownError(response, respDTO, entry.getReasonCode(), entry.getReasonDesc());
                     break;
                 default:
-                    throw new IllegalArgumentException("Unsupported error reason code");
+                    throw new IllegalStateException("Unhandled response handler " + entry.getHandler());
             }
         } else {
             throw new IllegalStateException("Unable to inquiry from service.");
@@ -110,64 +459,57 @@ public class InquiryService {
         return respDTO;
     }
 
+    // ทั้งสาม handler แยก description ด้วย DescriptionTokenizer ได้ผลเหมือน split(":") แต่ไม่สร้าง array/substring ที่ไม่ได้ใช้
+    // ช่วงธนาคารมีปัญหา response พวกนี้เข้ามาเยอะ
     void handleInvalidData(TransferResponse response, InquiryServiceResultDTO respDTO) {
+        handleInvalidData(response, respDTO, Handler.INVALID_DATA.getDefaultReasonCode(), Handler.INVALID_DATA.getDefaultReasonDesc());
+    }
+
+    // fallbackCode / fallbackDesc ใช้เมื่อแยก description ไม่ได้ มาจาก config ของ responseCode นั้น
+    void handleInvalidData(TransferResponse response, InquiryServiceResultDTO respDTO, String fallbackCode, String fallbackDesc) {
         String replyDesc = response.getDescription();
-        if (replyDesc != null) {
-            String[] respDesc = replyDesc.split(":");
-            if (respDesc.length >= 3) {
-                respDTO.setReasonCode(respDesc[0]);
-                respDTO.setReasonDesc(respDesc[2]);
-            } else {
-                respDTO.setReasonCode("400");
-                respDTO.setReasonDesc("General Invalid Data");
-            }
+        if (replyDesc != null && DescriptionTokenizer.segmentCount(replyDesc) >= 3) {
+            respDTO.setReasonCode(DescriptionTokenizer.segment(replyDesc, 0));
+            respDTO.setReasonDesc(DescriptionTokenizer.segment(replyDesc, 2));
         } else {
-            respDTO.setReasonCode("400");
-            respDTO.setReasonDesc("General Invalid Data");
+            respDTO.setReasonCode(fallbackCode);
+            respDTO.setReasonDesc(fallbackDesc);
         }
     }
 
     void handleTransactionError(TransferResponse response, InquiryServiceResultDTO respDTO) {
+        handleTransactionError(response, respDTO, Handler.TRANSACTION_ERROR.getDefaultReasonCode(), Handler.TRANSACTION_ERROR.getDefaultReasonDesc());
+    }
+
+    void handleTransactionError(TransferResponse response, InquiryServiceResultDTO respDTO, String fallbackCode, String fallbackDesc) {
         String replyDesc = response.getDescription();
-        if (replyDesc != null) {
-            String[] respDesc = replyDesc.split(":");
-            if (respDesc.length >= 2) {
-                String subIdx1 = respDesc[0];
-                String subIdx2 = respDesc[1];
-                if ("98".equalsIgnoreCase(subIdx1)) {
-                    respDTO.setReasonCode(subIdx1);
-                    respDTO.setReasonDesc(subIdx2);
-                } else if (respDesc.length >= 3) {
-                    respDTO.setReasonCode(subIdx2);
-                    respDTO.setReasonDesc(respDesc[2]);
-                } else {
-                    respDTO.setReasonCode(subIdx1);
-                    respDTO.setReasonDesc(subIdx2);
-                }
+        int segments = replyDesc != null ? DescriptionTokenizer.segmentCount(replyDesc) : 0;
+        if (segments >= 2) {
+            if (DescriptionTokenizer.segmentEqualsIgnoreCase(replyDesc, 0, "98") || segments < 3) {
+                respDTO.setReasonCode(DescriptionTokenizer.segment(replyDesc, 0));
+                respDTO.setReasonDesc(DescriptionTokenizer.segment(replyDesc, 1));
             } else {
-                respDTO.setReasonCode("500");
-                respDTO.setReasonDesc("General Transaction Error");
+                respDTO.setReasonCode(DescriptionTokenizer.segment(replyDesc, 1));
+                respDTO.setReasonDesc(DescriptionTokenizer.segment(replyDesc, 2));
             }
         } else {
-            respDTO.setReasonCode("500");
-            respDTO.setReasonDesc("General Transaction Error");
+            respDTO.setReasonCode(fallbackCode);
+            respDTO.setReasonDesc(fallbackDesc);
         }
     }
 
     void handleUnknownError(TransferResponse response, InquiryServiceResultDTO respDTO) {
+        handleUnknownError(response, respDTO, Handler.UNKNOWN.getDefaultReasonCode(), Handler.UNKNOWN.getDefaultReasonDesc());
+    }
+
+    void handleUnknownError(TransferResponse response, InquiryServiceResultDTO respDTO, String fallbackCode, String fallbackDesc) {
         String replyDesc = response.getDescription();
-        if (replyDesc != null) {
-            String[] respDesc = replyDesc.split(":");
-            if (respDesc.length >= 2) {
-                respDTO.setReasonCode(respDesc[0]);
-                respDTO.setReasonDesc(respDesc[1]);
-            } else {
-                respDTO.setReasonCode("501");
-                respDTO.setReasonDesc("General Invalid Data");
-            }
+        if (replyDesc != null && DescriptionTokenizer.segmentCount(replyDesc) >= 2) {
+            respDTO.setReasonCode(DescriptionTokenizer.segment(replyDesc, 0));
+            respDTO.setReasonDesc(DescriptionTokenizer.segment(replyDesc, 1));
         } else {
-            respDTO.setReasonCode("501");
-            respDTO.setReasonDesc("General Invalid Data");
+            respDTO.setReasonCode(fallbackCode);
+            respDTO.setReasonDesc(fallbackDesc);
         }
     }
 }
@@ -0,0 +1,78 @@
+package com.ascendcorp.exam.service;
+
+import com.ascendcorp.exam.model.InquiryBatchItemDTO;
+import com.ascendcorp.exam.model.TransferResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+@Service
+public class InquiryStreamService {
+
+    @Autowired
+    private InquiryService inquiryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    final static Logger log = LogManager.getLogger(InquiryStreamService.class);
+
+    // อ่านทีละ record แล้วเขียนผลออกทันที ไม่เก็บทั้งไฟล์ไว้ใน memory
+    // การเขียนลง output เป็นแบบ blocking ถ้า client อ่านช้า thread จะรอตรง flush และหยุดอ่าน record ถัดไปเอง (backpressure)
+    public long inquiryStream(InputStream in, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(InquiryBatchItemDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+        int count = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+             MappingIterator<TransferResponse> records = objectMapper.readerFor(TransferResponse.class).readValues(parser)) {
+
+            boolean open = true;
+            while (open) {
+                InquiryBatchItemDTO item;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    item = inquiryService.inquiryItem(count, records.nextValue());
+                } catch (JsonMappingException e) {
+                    // JSON ถูกแต่ map เป็น TransferResponse ไม่ได้ ตอบ error ของ record นี้แล้ว MappingIterator จะข้ามไป record ถัดไปให้
+                    item = invalidRecord(count, e);
+                } catch (JsonParseException e) {
+                    // JSON syntax พัง หาจุดเริ่ม record ถัดไปไม่ได้ ตอบ error แล้วหยุด
+                    item = invalidRecord(count, e);
+                    open = false;
+                }
+                writer.writeValue(generator, item);
+                generator.writeRaw('\n');
+                generator.flush();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static InquiryBatchItemDTO invalidRecord(int index, JsonProcessingException e) {
+        log.info("Unable to read inquiry record {}: {}", index, e.getOriginalMessage());
+        InquiryBatchItemDTO item = new InquiryBatchItemDTO();
+        item.setIndex(index);
+        item.setError("Invalid record: " + e.getOriginalMessage());
+        return item;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ascendcorp.exam.service;
+
+import com.ascendcorp.exam.model.FieldViolation;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// request ไม่ผ่าน validate รวมทุก field ที่ผิดไว้ในตัวเดียว ไม่เก็บ stack trace เพราะเป็น error ของ client ไม่ใช่ bug
+public class RequestValidationException extends RuntimeException {
+
+    private final List<FieldViolation> violations;
+
+    public RequestValidationException(List<FieldViolation> violations) {
+        super(violations.stream().map(FieldViolation::getMessage).collect(Collectors.joining(", ")), null, false, false);
+        this.violations = Collections.unmodifiableList(violations);
+    }
+
+    public List<FieldViolation> getViolations() {
+        return violations;
+    }
+}
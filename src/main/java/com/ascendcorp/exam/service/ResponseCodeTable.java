@@ -0,0 +1,153 @@
+package com.ascendcorp.exam.service;
+
+import com.ascendcorp.exam.config.ConfigReloader;
+import com.ascendcorp.exam.config.ResponseCodeProperties;
+import com.ascendcorp.exam.config.ResponseCodeProperties.Handler;
+import lombok.Getter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// ตาราง dispatch ของ responseCode สร้างครั้งเดียวจาก ResponseCodeProperties แล้วใช้อ่านอย่างเดียว
+// lookup ไม่สนตัวพิมพ์เล็กใหญ่โดยไม่ต้อง toLowerCase (ไม่สร้าง String ใหม่ต่อ request):
+// hash คำนวณจากตัวอักษรที่ fold แล้วทีละตัว, เทียบ key ด้วย regionMatches(ignoreCase) บน open addressing table
+// reload สร้างตารางใหม่ทั้งชุดแล้วสลับ reference เดียว request ที่กำลังทำงานเห็นตารางเก่าหรือใหม่ทั้งชุดเสมอ
+@Component
+public class ResponseCodeTable {
+
+    final static Logger log = LogManager.getLogger(ResponseCodeTable.class);
+
+    private volatile Table table;
+
+    public ResponseCodeTable() {
+        this(new ResponseCodeProperties());
+    }
+
+    @Autowired
+    public ResponseCodeTable(ResponseCodeProperties properties) {
+        this.table = Table.build(properties.getCodes());
+    }
+
+    @Autowired(required = false)
+    public void setConfigReloader(ConfigReloader configReloader) {
+        configReloader.register("inquiry.response-codes", ResponseCodeProperties.class, this::reload);
+    }
+
+    // config ผิด (handler ไม่รู้จัก, code ซ้ำกันเมื่อไม่สนตัวพิมพ์) จะโยน exception และใช้ตารางเดิมต่อ
+    void reload(ResponseCodeProperties reloaded) {
+        table = Table.build(reloaded.getCodes());
+        log.info("Response code table reloaded codes={}", reloaded.getCodes().keySet());
+    }
+
+    // null = responseCode ที่ไม่ได้ตั้งไว้
+    public Entry lookup(String responseCode) {
+        return responseCode != null ? table.get(responseCode) : null;
+    }
+
+    @Getter
+    public static final class Entry {
+
+        private final String responseCode;
+        private final Handler handler;
+        private final String reasonCode;
+        private final String reasonDesc;
+        // ชื่อ branch สำหรับ metric มีเท่าจำนวน handler ไม่ใช่จำนวน code
+        private final String branch;
+
+        Entry(String responseCode, Handler handler, String reasonCode, String reasonDesc) {
+            this.responseCode = responseCode;
+            this.handler = handler;
+            this.reasonCode = reasonCode != null ? reasonCode : handler.getDefaultReasonCode();
+            this.reasonDesc = reasonDesc != null ? reasonDesc : handler.getDefaultReasonDesc();
+            this.branch = handler.name().toLowerCase();
+        }
+    }
+
+    private static final class Table {
+
+        private final String[] keys;
+        private final Entry[] entries;
+        private final int mask;
+
+        private Table(int capacity) {
+            this.keys = new String[capacity];
+            this.entries = new Entry[capacity];
+            this.mask = capacity - 1;
+        }
+
+        // load factor ไม่เกิน 0.5 probe ส่วนใหญ่จบในช่องแรก
+        static Table build(Map<String, ResponseCodeProperties.Mapping> codes) {
+            int capacity = Integer.highestOneBit(Math.max(4, codes.size()) * 2 - 1) << 1;
+            Table table = new Table(capacity);
+            codes.forEach((code, mapping) -> table.put(code, entry(code, mapping)));
+            return table;
+        }
+
+        private static Entry entry(String code, ResponseCodeProperties.Mapping mapping) {
+            Handler handler = mapping != null ? mapping.getHandler() : null;
+            if (handler == null) {
+                // override แค่ reasonCode/reasonDesc ของ code เดิม เช่น codes.approved.reason-code=000
+                handler = handlerNamed(code);
+            }
+            return new Entry(code, handler,
+                    mapping != null ? mapping.getReasonCode() : null,
+                    mapping != null ? mapping.getReasonDesc() : null);
+        }
+
+        private static Handler handlerNamed(String code) {
+            for (Handler handler : Handler.values()) {
+                if (handler.name().equalsIgnoreCase(code)) {
+                    return handler;
+                }
+            }
+            throw new IllegalArgumentException("No handler configured for response code " + code);
+        }
+
+        private void put(String code, Entry entry) {
+            int i = hash(code) & mask;
+            while (keys[i] != null) {
+                if (matches(keys[i], code)) {
+                    throw new IllegalArgumentException("Duplicate response code " + code + " (codes are case-insensitive)");
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = code;
+            entries[i] = entry;
+        }
+
+        Entry get(String code) {
+            int i = hash(code) & mask;
+            String key;
+            while ((key = keys[i]) != null) {
+                if (matches(key, code)) {
+                    return entries[i];
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+
+        private static boolean matches(String key, String code) {
+            return key.length() == code.length() && key.regionMatches(true, 0, code, 0, code.length());
+        }
+
+        // fold แบบเดียวกับ regionMatches(ignoreCase) ค่าที่ matches กันจึงได้ hash เดียวกันเสมอ
+        private static int hash(String code) {
+            int h = 0;
+            for (int i = 0; i < code.length(); i++) {
+                h = 31 * h + fold(code.charAt(i));
+            }
+            return h ^ (h >>> 16);
+        }
+
+        private static char fold(char c) {
+            if (c < 128) {
+                return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+            }
+            return Character.toLowerCase(Character.toUpperCase(c));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.ascendcorp.exam.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// รวม call ที่ key เดียวกันและยังค้างอยู่ให้เหลือ call เดียว ทุกคนที่รอได้ผลลัพธ์ (หรือ exception) ตัวเดียวกัน
+// พอ call จบ key จะถูกเอาออก call ถัดไปจะยิงใหม่ ไม่ได้ cache ผลลัพธ์
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            deduplicated.increment();
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            V value = call.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            deduplicated.increment();
+            return existing;
+        }
+
+        executions.increment();
+        CompletableFuture<V> upstream;
+        try {
+            upstream = call.get();
+        } catch (RuntimeException e) {
+            upstream = new CompletableFuture<>();
+            upstream.completeExceptionally(e);
+        }
+        upstream.whenComplete((value, e) -> {
+            inFlight.remove(key, flight);
+            if (e != null) {
+                flight.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            } else {
+                flight.complete(value);
+            }
+        });
+        return flight;
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    public long getDeduplicated() {
+        return deduplicated.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,17 @@
+package com.ascendcorp.exam.service;
+
+import com.ascendcorp.exam.model.TransferResponse;
+import lombok.Value;
+
+@Value
+public class TransactionKey {
+
+    String bankTransactionID;
+    String bankCode;
+    String bankNumber;
+
+    public static TransactionKey of(TransferResponse transferResponse) {
+        return new TransactionKey(transferResponse.getBankTransactionID(),
+                transferResponse.getBankCode(), transferResponse.getBankNumber());
+    }
+}
@@ -0,0 +1,128 @@
+package com.ascendcorp.exam.controller;
+
+import com.ascendcorp.exam.config.BinaryContentConfig;
+import com.ascendcorp.exam.model.Amount;
+import com.ascendcorp.exam.model.InquiryServiceResultDTO;
+import com.ascendcorp.exam.model.TransferResponse;
+import com.ascendcorp.exam.service.InquiryService;
+import com.ascendcorp.exam.service.InquiryStreamService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CompletableFuture;
+
+import static com.ascendcorp.exam.model.TransferResponses.transferResponse;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(InquiryController.class)
+@Import(BinaryContentConfig.class)
+class InquiryControllerContentTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final ObjectMapper json = new ObjectMapper(new JsonFactory());
+    private final ObjectMapper smile = new ObjectMapper(new SmileFactory());
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private InquiryService inquiryService;
+
+    @MockBean
+    private InquiryStreamService inquiryStreamService;
+
+    @BeforeEach
+    void setUp() {
+        InquiryServiceResultDTO result = new InquiryServiceResultDTO();
+        result.setTranID("TX12345");
+        result.setReasonCode("200");
+        result.setReasonDesc("Transaction approved");
+        result.setAmount(Amount.parse("1000.0"));
+        when(inquiryService.inquiryAsync(any())).thenReturn(CompletableFuture.completedFuture(result));
+    }
+
+    private MvcResult exchange(ObjectMapper requestMapper, MediaType contentType, MediaType accept) throws Exception {
+        MvcResult started = mockMvc.perform(post("/inquiry/transaction")
+                        .contentType(contentType)
+                        .accept(accept)
+                        .content(requestMapper.writeValueAsBytes(transferResponse())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    private TransferResponse receivedRequest() {
+        ArgumentCaptor<TransferResponse> captor = ArgumentCaptor.forClass(TransferResponse.class);
+        verify(inquiryService).inquiryAsync(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void testJsonIsDefault() throws Exception {
+
+        MvcResult result = exchange(json, MediaType.APPLICATION_JSON, MediaType.ALL);
+
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(result.getResponse().getContentType())));
+        InquiryServiceResultDTO body = json.readValue(result.getResponse().getContentAsByteArray(), InquiryServiceResultDTO.class);
+        assertEquals("TX12345", body.getTranID());
+    }
+
+    @Test
+    void testSmileRequestAndResponse() throws Exception {
+
+        MvcResult result = exchange(smile, SMILE, SMILE);
+
+        assertTrue(SMILE.isCompatibleWith(MediaType.parseMediaType(result.getResponse().getContentType())));
+        InquiryServiceResultDTO body = smile.readValue(result.getResponse().getContentAsByteArray(), InquiryServiceResultDTO.class);
+        assertEquals("TX12345", body.getTranID());
+        assertEquals("1000.0", body.getAmount().toString());
+
+        TransferResponse received = receivedRequest();
+        assertEquals("B001", received.getBankCode());
+        assertEquals(Amount.parse("1000.0"), received.getAmount());
+        assertNotNull(received.getTranDateTime());
+    }
+
+    @Test
+    void testCborRequestAndResponse() throws Exception {
+
+        MvcResult result = exchange(cbor, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_CBOR);
+
+        assertTrue(MediaType.APPLICATION_CBOR.isCompatibleWith(MediaType.parseMediaType(result.getResponse().getContentType())));
+        InquiryServiceResultDTO body = cbor.readValue(result.getResponse().getContentAsByteArray(), InquiryServiceResultDTO.class);
+        assertEquals("Transaction approved", body.getReasonDesc());
+        assertEquals("123456", receivedRequest().getBankNumber());
+    }
+
+    @Test
+    void testBinaryRequestWithJsonResponse() throws Exception {
+
+        MvcResult result = exchange(smile, SMILE, MediaType.APPLICATION_JSON);
+
+        InquiryServiceResultDTO body = json.readValue(result.getResponse().getContentAsByteArray(), InquiryServiceResultDTO.class);
+        assertEquals("200", body.getReasonCode());
+    }
+}
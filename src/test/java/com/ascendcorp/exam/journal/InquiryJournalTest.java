@@ -0,0 +1,312 @@
+package com.ascendcorp.exam.journal;
+
+import com.ascendcorp.exam.config.InquiryJournalProperties;
+import com.ascendcorp.exam.model.Amount;
+import com.ascendcorp.exam.model.InquiryServiceResultDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InquiryJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<InquiryJournal> journals = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        journals.forEach(InquiryJournal::shutdown);
+    }
+
+    private InquiryJournal journal(DataSize segmentSize) {
+        InquiryJournalProperties properties = new InquiryJournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(segmentSize);
+        properties.setIndexInterval(16);
+        InquiryJournal journal = new InquiryJournal(properties);
+        journals.add(journal);
+        return journal;
+    }
+
+    private File segmentFile(long sequence) {
+        return new File(directory.toFile(), String.format("%020d.journal", sequence));
+    }
+
+    private static InquiryServiceResultDTO result(String tranId, String reasonCode) {
+        InquiryServiceResultDTO result = new InquiryServiceResultDTO();
+        result.setTranID(tranId);
+        result.setNamespace("testExam");
+        result.setReasonCode(reasonCode);
+        result.setReasonDesc("Transaction approved");
+        result.setAmount(Amount.parse("1000.0"));
+        result.setBalance(Amount.parse("1000.0"));
+        result.setRef_no1("REF001");
+        result.setRef_no2(null);
+        result.setAccountName("สมชาย 😀");
+        return result;
+    }
+
+    private static List<JournalRecord> replay(InquiryJournal journal) {
+        List<JournalRecord> records = new ArrayList<>();
+        journal.replay(records::add);
+        return records;
+    }
+
+    @Test
+    void testAppendAndReadBack() {
+
+        InquiryJournal journal = journal(DataSize.ofMegabytes(4));
+        for (int i = 0; i < 100; i++) {
+            journal.append(result("TX" + i, i % 2 == 0 ? "200" : "400"));
+        }
+
+        List<JournalRecord> records = replay(journal);
+        assertEquals(100, records.size());
+        assertEquals("TX0", records.get(0).getResult().getTranID());
+        assertEquals("TX99", records.get(99).getResult().getTranID());
+
+        InquiryServiceResultDTO first = records.get(0).getResult();
+        assertEquals("testExam", first.getNamespace());
+        assertEquals("200", first.getReasonCode());
+        assertEquals("1000.0", first.getAmount().toString());
+        assertNull(first.getRef_no2());
+        assertEquals("สมชาย 😀", first.getAccountName());
+        assertEquals(100L, journal.stats().get("journal.appended"));
+    }
+
+    @Test
+    void testFindByTranId() {
+
+        InquiryJournal journal = journal(DataSize.ofMegabytes(4));
+        for (int i = 0; i < 1000; i++) {
+            journal.append(result("TX" + i, "200"));
+        }
+        journal.append(result("TX500", "500"));
+
+        List<JournalRecord> found = journal.find("TX500");
+        assertEquals(2, found.size());
+        assertEquals("200", found.get(0).getResult().getReasonCode());
+        assertEquals("500", found.get(1).getResult().getReasonCode());
+        assertTrue(journal.find("TX-missing").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> journal.find(null));
+    }
+
+    @Test
+    void testScanTimeRange() throws Exception {
+
+        InquiryJournal journal = journal(DataSize.ofMegabytes(4));
+        for (int i = 0; i < 50; i++) {
+            journal.append(result("OLD" + i, "200"));
+        }
+        Thread.sleep(20);
+        long from = System.currentTimeMillis();
+        for (int i = 0; i < 50; i++) {
+            journal.append(result("NEW" + i, "200"));
+        }
+        long to = System.currentTimeMillis() + 1;
+
+        List<JournalRecord> records = new ArrayList<>();
+        journal.scan(from, to, records::add);
+        assertEquals(50, records.size());
+        records.forEach(record -> assertTrue(record.getResult().getTranID().startsWith("NEW")));
+
+        List<JournalRecord> none = new ArrayList<>();
+        journal.scan(to, to + 1000, none::add);
+        assertTrue(none.isEmpty());
+    }
+
+    @Test
+    void testRollsSegmentsAndRecoversAfterRestart() {
+
+        InquiryJournal journal = journal(DataSize.ofMegabytes(1));
+        int count = 20_000;
+        for (int i = 0; i < count; i++) {
+            journal.append(result("TX" + i, "200"));
+        }
+        journal.shutdown();
+        assertTrue(directory.toFile().listFiles().length > 1);
+
+        InquiryJournal reopened = journal(DataSize.ofMegabytes(1));
+        reopened.append(result("AFTER", "200"));
+
+        List<JournalRecord> records = replay(reopened);
+        assertEquals(count + 1, records.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals("TX" + i, records.get(i).getResult().getTranID());
+        }
+        assertEquals("AFTER", records.get(count).getResult().getTranID());
+        assertEquals(1, reopened.find("TX12345").size());
+    }
+
+    @Test
+    void testSealedSegmentsReopenFromIndex() throws Exception {
+
+        InquiryJournal journal = journal(DataSize.ofMegabytes(1));
+        int count = 20_000;
+        for (int i = 0; i < count; i++) {
+            journal.append(result("TX" + i, "200"));
+        }
+        journal.flush();
+        assertTrue(new File(directory.toFile(), String.format("%020d.index", 0)).isFile());
+        journal.shutdown();
+
+        // ทำ record แรกของ segment 0 เสีย ถ้าตอนเปิดไล่อ่านใหม่จะเห็น segment 0 ว่างทั้งไฟล์
+        // โหลดจาก index แล้วเสียแค่ block แรก block อื่นยังอ่านได้
+        try (RandomAccessFile raf = new RandomAccessFile(segmentFile(0), "rw")) {
+            raf.seek(JournalSegment.HEADER_SIZE + RecordCodec.HEADER_SIZE + 10);
+            raf.write(0x7F);
+        }
+
+        InquiryJournal reopened = journal(DataSize.ofMegabytes(1));
+        assertTrue(reopened.find("TX0").isEmpty());
+        assertEquals(1, reopened.find("TX100").size());
+        assertEquals(1, reopened.find("TX" + (count - 1)).size());
+    }
+
+    @Test
+    void testRollUsesPreparedSegment() {
+
+        InquiryJournal journal = journal(DataSize.ofMegabytes(1));
+        journal.prepareSpare();
+        assertTrue(segmentFile(1).isFile());
+
+        // ประมาณ 110 byte ต่อ record segment 1MB เต็มหนึ่งครั้ง
+        for (int i = 0; i < 12_000; i++) {
+            journal.append(result("TX" + i, "200"));
+        }
+
+        assertEquals(0L, journal.stats().get("journal.unprepared-rolls"));
+        assertEquals(12_000, replay(journal).size());
+    }
+
+    @Test
+    void testRetireArchivesExpiredSegments() {
+
+        InquiryJournal journal = journal(DataSize.ofMegabytes(1));
+        List<File> archived = new ArrayList<>();
+        journal.setArchiver((segment, index) -> {
+            assertTrue(index.isFile());
+            archived.add(segment);
+        });
+        for (int i = 0; i < 30_000; i++) {
+            journal.append(result("TX" + i, "200"));
+        }
+        journal.flush();
+
+        assertEquals(0, journal.retire(0));
+        int retired = journal.retire(Long.MAX_VALUE);
+
+        assertTrue(retired >= 2);
+        assertEquals(retired, archived.size());
+        archived.forEach(file -> assertFalse(file.exists()));
+        assertTrue(journal.find("TX0").isEmpty());
+        assertEquals(1, journal.find("TX29999").size());
+        assertEquals((long) retired, journal.stats().get("journal.retired"));
+    }
+
+    @Test
+    void testTornRecordIsIgnoredOnRecovery() throws Exception {
+
+        InquiryJournal journal = journal(DataSize.ofMegabytes(1));
+        journal.append(result("TX1", "200"));
+        journal.append(result("TX2", "200"));
+        journal.shutdown();
+
+        // ทำให้ record ที่สองเสีย เหมือนเครื่องดับระหว่างเขียน
+        File segment = segmentFile(0);
+        int secondRecord = JournalSegment.HEADER_SIZE + RecordCodec.encodedSize(result("TX1", "200"));
+        try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+            raf.seek(secondRecord + RecordCodec.HEADER_SIZE + 10);
+            raf.write(0x7F);
+        }
+
+        InquiryJournal reopened = journal(DataSize.ofMegabytes(1));
+        reopened.append(result("TX3", "200"));
+
+        List<JournalRecord> records = replay(reopened);
+        assertEquals(2, records.size());
+        assertEquals("TX1", records.get(0).getResult().getTranID());
+        assertEquals("TX3", records.get(1).getResult().getTranID());
+    }
+
+    @Test
+    void testRejectsSegmentWithoutHeader() throws Exception {
+
+        // segment จากก่อนมี header: record เริ่มที่ byte 0
+        File old = segmentFile(0);
+        try (RandomAccessFile raf = new RandomAccessFile(old, "rw")) {
+            raf.setLength(DataSize.ofMegabytes(1).toBytes());
+            raf.writeInt(RecordCodec.MIN_RECORD_SIZE);
+        }
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> journal(DataSize.ofMegabytes(1)));
+        assertTrue(e.getMessage().contains(old.getName()));
+    }
+
+    @Test
+    void testRejectsUnknownFormatVersion() throws Exception {
+
+        InquiryJournal journal = journal(DataSize.ofMegabytes(1));
+        journal.append(result("TX1", "200"));
+        journal.shutdown();
+
+        File segment = segmentFile(0);
+        try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+            raf.seek(4);
+            raf.writeInt(JournalSegment.FORMAT_VERSION + 1);
+        }
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> journal(DataSize.ofMegabytes(1)));
+        assertTrue(e.getMessage().contains("format version " + (JournalSegment.FORMAT_VERSION + 1)));
+    }
+
+    @Test
+    void testConcurrentAppends() throws Exception {
+
+        InquiryJournal journal = journal(DataSize.ofMegabytes(2));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    journal.append(result("T" + thread + "-" + i, "200"));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        journal.flush();
+
+        assertEquals(16_000, replay(journal).size());
+        assertEquals(1, journal.find("T7-1999").size());
+        assertEquals(0L, journal.stats().get("journal.failed"));
+    }
+
+    @Test
+    void testDisabledJournalWritesNothing() {
+
+        InquiryJournalProperties properties = new InquiryJournalProperties();
+        properties.setDirectory(new File(directory.toFile(), "disabled").getPath());
+        InquiryJournal journal = new InquiryJournal(properties);
+
+        journal.append(result("TX1", "200"));
+
+        assertFalse(new File(directory.toFile(), "disabled").exists());
+        assertTrue(replay(journal).isEmpty());
+        assertEquals(0L, journal.stats().get("journal.appended"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.ascendcorp.exam.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.ContextAttributes;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AmountTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testParse() {
+
+        assertEquals(100000, Amount.parse("1000").getMinorUnits());
+        assertEquals(100000, Amount.parse("1000.0").getMinorUnits());
+        assertEquals(100050, Amount.parse("1000.5").getMinorUnits());
+        assertEquals(100025, Amount.parse("1000.250").getMinorUnits());
+        assertEquals(-525, Amount.parse("-5.25").getMinorUnits());
+        assertEquals(1000000000, Amount.parse("1.0E7").getMinorUnits());
+        assertSame(Amount.ZERO, Amount.parse("0.00"));
+    }
+
+    @Test
+    void testParseRejectsExtraPrecisionAndGarbage() {
+
+        assertThrows(NumberFormatException.class, () -> Amount.parse("1000.005"));
+        assertThrows(NumberFormatException.class, () -> Amount.parse("1.23456E2"));
+        assertThrows(NumberFormatException.class, () -> Amount.parse(""));
+        assertThrows(NumberFormatException.class, () -> Amount.parse("-"));
+        assertThrows(NumberFormatException.class, () -> Amount.parse("1.2.3"));
+        assertThrows(NumberFormatException.class, () -> Amount.parse("abc"));
+        assertThrows(NumberFormatException.class, () -> Amount.parse("10000000000000"));
+        assertThrows(NumberFormatException.class, () -> Amount.parse("1e14"));
+        assertThrows(NumberFormatException.class, () -> Amount.parse("1e-3"));
+    }
+
+    // exponent ใหญ่มากต้องถูกปฏิเสธก่อน setScale สร้างเลขหลายล้านหลัก
+    @Test
+    void testParseRejectsHugeExponentWithoutScaling() {
+
+        long startNanos = System.nanoTime();
+        assertThrows(NumberFormatException.class, () -> Amount.parse("1e20000000"));
+        assertThrows(NumberFormatException.class, () -> Amount.parse("1e-20000000"));
+        assertThrows(NumberFormatException.class, () -> Amount.parse("-9.5E+2147483647"));
+        assertTrue(System.nanoTime() - startNanos < 1_000_000_000L);
+        assertSame(Amount.ZERO, Amount.parse("0e20000000"));
+        assertEquals(Amount.ofUnits(1000), Amount.parse("1000000.000e-3"));
+        assertEquals(Amount.parse("9999999999999.99"), Amount.parse("9.99999999999999e12"));
+    }
+
+    // รูปแบบ COMPAT ต้องตรงกับ String.valueOf(double) ที่ใช้อยู่เดิมทุกค่า
+    @Test
+    void testCompatFormatMatchesDoubleToString() {
+
+        Random random = new Random(42);
+        long[] values = {0, 1, 10, 99, 100, 101, 110, 100000, 999999999, 1000000000, 1234567890123L, Amount.MAX_MINOR_UNITS};
+        for (long minorUnits : values) {
+            assertCompat(minorUnits);
+            assertCompat(-minorUnits);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertCompat(i % 2 == 0 ? random.nextInt(10_000_000) : Math.floorMod(random.nextLong(), Amount.MAX_MINOR_UNITS));
+        }
+    }
+
+    private static void assertCompat(long minorUnits) {
+        Amount amount = Amount.ofMinorUnits(minorUnits);
+        String expected = String.valueOf(new BigDecimal(minorUnits).movePointLeft(2).doubleValue());
+        assertEquals(expected, amount.toString());
+        assertEquals(amount, Amount.parse(expected));
+    }
+
+    @Test
+    void testFixedFormat() {
+
+        assertEquals("1000.00", Amount.parse("1000").toString(Amount.Format.FIXED));
+        assertEquals("1000.50", Amount.parse("1000.5").toString(Amount.Format.FIXED));
+        assertEquals("-0.05", Amount.parse("-0.05").toString(Amount.Format.FIXED));
+        assertEquals("10000000.00", Amount.parse("1.0E7").toString(Amount.Format.FIXED));
+    }
+
+    @Test
+    void testJsonRoundTrip() throws Exception {
+
+        TransferResponse request = objectMapper.readValue("{\"amount\":1000.0}", TransferResponse.class);
+        assertEquals(Amount.parse("1000.0"), request.getAmount());
+        assertEquals(Amount.ofUnits(1000), objectMapper.readValue("{\"amount\":1000}", TransferResponse.class).getAmount());
+        assertEquals(Amount.parse("1000.25"), objectMapper.readValue("{\"amount\":\"1000.25\"}", TransferResponse.class).getAmount());
+        assertNull(objectMapper.readValue("{\"amount\":null}", TransferResponse.class).getAmount());
+        assertNull(objectMapper.readValue("{\"amount\":\"\"}", TransferResponse.class).getAmount());
+        assertTrue(objectMapper.writeValueAsString(request).contains("\"amount\":1000.0"));
+
+        InquiryServiceResultDTO result = new InquiryServiceResultDTO();
+        result.setAmount(request.getAmount());
+        result.setBalance(Amount.parse("12345678.9"));
+        String json = objectMapper.writeValueAsString(result);
+        assertTrue(json.contains("\"amount\":\"1000.0\""));
+        assertTrue(json.contains("\"balance\":\"1.23456789E7\""));
+        assertEquals(result, objectMapper.readValue(json, InquiryServiceResultDTO.class));
+    }
+
+    @Test
+    void testFixedFormatAttribute() throws Exception {
+
+        ObjectMapper fixed = new ObjectMapper();
+        fixed.setDefaultAttributes(ContextAttributes.getEmpty().withSharedAttribute(Amount.Format.class, Amount.Format.FIXED));
+        InquiryServiceResultDTO result = new InquiryServiceResultDTO();
+        result.setAmount(Amount.parse("1000.0"));
+
+        assertTrue(fixed.writeValueAsString(result).contains("\"amount\":\"1000.00\""));
+    }
+
+    @Test
+    void testJsonRejectsExtraPrecision() {
+
+        assertThrows(InvalidFormatException.class,
+                () -> objectMapper.readValue("{\"amount\":1000.005}", TransferResponse.class));
+        assertThrows(InvalidFormatException.class,
+                () -> objectMapper.readValue("{\"amount\":\"x\"}", TransferResponse.class));
+    }
+}
@@ -0,0 +1,33 @@
+package com.ascendcorp.exam.model;
+
+import java.util.Date;
+
+// TransferResponse ที่กรอกครบทุก field ใช้ร่วมกันใน test และ benchmark (src/jmh)
+// ได้ object ใหม่ทุกครั้ง test แก้เฉพาะ field ที่สนใจได้เลย
+public final class TransferResponses {
+
+    private TransferResponses() {
+    }
+
+    public static TransferResponse transferResponse() {
+        return transferResponse("TX12345", "B001");
+    }
+
+    public static TransferResponse transferResponse(String tranId, String bankCode) {
+        TransferResponse transferResponse = new TransferResponse();
+        transferResponse.setBankTransactionID(tranId);
+        transferResponse.setResponseCode("approved");
+        transferResponse.setTranDateTime(new Date());
+        transferResponse.setChannel("ATM");
+        transferResponse.setLocationCode("LOC001");
+        transferResponse.setBankCode(bankCode);
+        transferResponse.setBankNumber("123456");
+        transferResponse.setDescription("Transaction approved");
+        transferResponse.setReferenceCode1("REF001");
+        transferResponse.setReferenceCode2("REF002");
+        transferResponse.setAmount(Amount.parse("1000.0"));
+        transferResponse.setFirstName("John");
+        transferResponse.setLastName("Doe");
+        return transferResponse;
+    }
+}
@@ -0,0 +1,101 @@
+package com.ascendcorp.exam.proxy;
+
+import com.ascendcorp.exam.config.BankGuardProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static AdaptiveConcurrencyLimit newLimit(int initialLimit, int maxLimit) {
+        BankGuardProperties.Limiter config = new BankGuardProperties.Limiter();
+        config.setInitialLimit(initialLimit);
+        config.setLongWindow(100);
+        return new AdaptiveConcurrencyLimit(config, maxLimit);
+    }
+
+    // ยิงให้เต็ม limit แล้วปล่อยทุกตัวด้วย RTT เดียวกัน
+    private static void saturate(AdaptiveConcurrencyLimit limit, long rttNanos) throws InterruptedException {
+        int acquired = 0;
+        while (limit.tryAcquire(0)) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limit.release(rttNanos, false);
+        }
+    }
+
+    @Test
+    void testRejectsOverLimit() throws InterruptedException {
+
+        AdaptiveConcurrencyLimit limit = newLimit(2, 10);
+
+        assertTrue(limit.tryAcquire(0));
+        assertTrue(limit.tryAcquire(0));
+        assertFalse(limit.tryAcquire(0));
+        assertFalse(limit.tryAcquire(TimeUnit.MILLISECONDS.toNanos(5)));
+        assertEquals(2, limit.getInFlight());
+    }
+
+    @Test
+    void testGrowsWhileLatencyIsStable() throws InterruptedException {
+
+        AdaptiveConcurrencyLimit limit = newLimit(10, 100);
+
+        for (int i = 0; i < 20; i++) {
+            saturate(limit, RTT);
+        }
+
+        assertTrue(limit.getLimit() > 10);
+        assertTrue(limit.getLimit() <= 100);
+    }
+
+    @Test
+    void testShrinksWhenLatencyRises() throws InterruptedException {
+
+        AdaptiveConcurrencyLimit limit = newLimit(40, 100);
+        for (int i = 0; i < 5; i++) {
+            saturate(limit, RTT);
+        }
+        int before = limit.getLimit();
+
+        saturate(limit, RTT * 5);
+
+        assertTrue(limit.getLimit() < before / 2);
+    }
+
+    @Test
+    void testBacksOffOnDroppedCall() throws InterruptedException {
+
+        AdaptiveConcurrencyLimit limit = newLimit(20, 100);
+
+        assertTrue(limit.tryAcquire(0));
+        limit.release(RTT, true);
+
+        assertEquals(18, limit.getLimit());
+    }
+
+    @Test
+    void testQueuedCallerGetsReleasedPermit() throws Exception {
+
+        AdaptiveConcurrencyLimit limit = newLimit(1, 1);
+        assertTrue(limit.tryAcquire(0));
+
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            limit.release(RTT, false);
+        });
+        releaser.start();
+
+        assertTrue(limit.tryAcquire(TimeUnit.SECONDS.toNanos(5)));
+        releaser.join();
+    }
+}
@@ -0,0 +1,71 @@
+package com.ascendcorp.exam.proxy;
+
+import com.ascendcorp.exam.config.BankGuardProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BankCallGuardTest {
+
+    @Test
+    void testBulkheadIsPerBank() {
+
+        BankGuardProperties properties = new BankGuardProperties();
+        properties.getBulkhead().setMaxConcurrent(1);
+        BankCallGuard guard = new BankCallGuard(properties);
+
+        CompletableFuture<String> slowBank = new CompletableFuture<>();
+        CompletableFuture<String> first = guard.executeAsync("SLOW", () -> slowBank);
+
+        CompletableFuture<String> rejected = guard.executeAsync("SLOW", () -> CompletableFuture.completedFuture("x"));
+        CompletionException e = assertThrows(CompletionException.class, rejected::join);
+        assertEquals(BankUnavailableException.BULKHEAD_FULL, ((BankUnavailableException) e.getCause()).getReasonCode());
+
+        assertEquals("ok", guard.execute("HEALTHY", () -> "ok"));
+
+        slowBank.complete("done");
+        assertEquals("done", first.join());
+        assertEquals("again", guard.execute("SLOW", () -> "again"));
+        assertEquals(1L, guard.stats().get("guard.rejected.bulkheadFull"));
+    }
+
+    @Test
+    void testCancelReachesCallAndFreesBulkhead() {
+
+        BankGuardProperties properties = new BankGuardProperties();
+        properties.getBulkhead().setMaxConcurrent(1);
+        properties.getBreaker().setMinimumCalls(1);
+        BankCallGuard guard = new BankCallGuard(properties);
+
+        CompletableFuture<String> slowBank = new CompletableFuture<>();
+        CompletableFuture<String> loser = guard.executeAsync("SLOW", () -> slowBank);
+        loser.cancel(false);
+
+        assertTrue(slowBank.isCancelled());
+        assertEquals("next", guard.executeAsync("SLOW", () -> CompletableFuture.completedFuture("next")).join());
+        assertEquals(BankCircuitBreaker.State.CLOSED, guard.getState("SLOW"));
+    }
+
+    @Test
+    void testOpenCircuitFailsFast() {
+
+        BankGuardProperties properties = new BankGuardProperties();
+        properties.getBreaker().setMinimumCalls(2);
+        BankCallGuard guard = new BankCallGuard(properties);
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalStateException.class, () -> guard.execute("DOWN", () -> {
+                throw new IllegalStateException("Unable to inquiry from service.");
+            }));
+        }
+
+        BankUnavailableException e = assertThrows(BankUnavailableException.class,
+                () -> guard.execute("DOWN", () -> "never called"));
+        assertEquals(BankUnavailableException.CIRCUIT_OPEN, e.getReasonCode());
+        assertEquals(BankCircuitBreaker.State.OPEN, guard.getState("DOWN"));
+        assertEquals(BankCircuitBreaker.State.CLOSED, guard.getState("HEALTHY"));
+    }
+}
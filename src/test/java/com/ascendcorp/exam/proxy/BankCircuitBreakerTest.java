@@ -0,0 +1,92 @@
+package com.ascendcorp.exam.proxy;
+
+import com.ascendcorp.exam.config.BankGuardProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BankCircuitBreakerTest {
+
+    private long now;
+    private BankCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        BankGuardProperties.Breaker config = new BankGuardProperties.Breaker();
+        config.setWindowSize(10);
+        config.setMinimumCalls(4);
+        config.setFailureRateThreshold(50);
+        config.setSlowCallDuration(Duration.ofMillis(100));
+        config.setSlowCallRateThreshold(100);
+        config.setOpenDuration(Duration.ofSeconds(10));
+        config.setHalfOpenCalls(2);
+        breaker = new BankCircuitBreaker(config, () -> now);
+    }
+
+    private void call(boolean error) {
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onResult(TimeUnit.MILLISECONDS.toNanos(10), error);
+    }
+
+    @Test
+    void testOpensWhenFailureRateReachesThreshold() {
+
+        call(false);
+        call(true);
+        call(false);
+        assertEquals(BankCircuitBreaker.State.CLOSED, breaker.getState());
+
+        call(true);
+
+        assertEquals(BankCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void testOpensWhenAllCallsAreSlow() {
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(breaker.tryAcquirePermission());
+            breaker.onResult(TimeUnit.MILLISECONDS.toNanos(150), false);
+        }
+
+        assertEquals(BankCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpenClosesAfterSuccessfulProbes() {
+
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+        now += TimeUnit.SECONDS.toNanos(10);
+
+        assertTrue(breaker.tryAcquirePermission());
+        assertEquals(BankCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+
+        breaker.onResult(TimeUnit.MILLISECONDS.toNanos(10), false);
+        breaker.onResult(TimeUnit.MILLISECONDS.toNanos(10), false);
+
+        assertEquals(BankCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpenReopensOnFailedProbe() {
+
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+        now += TimeUnit.SECONDS.toNanos(10);
+
+        call(true);
+
+        assertEquals(BankCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+}
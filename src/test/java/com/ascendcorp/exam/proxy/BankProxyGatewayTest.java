@@ -1,5 +1,6 @@
 package com.ascendcorp.exam.proxy;
 
+import com.ascendcorp.exam.model.Amount;
 import com.ascendcorp.exam.model.TransferResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,6 +10,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,7 +35,7 @@ class BankProxyGatewayTest {
         inputTransferResponse.setBankCode("BANK123");
         inputTransferResponse.setBankNumber("9876543210");
         inputTransferResponse.setDescription("Transaction Approved");
-        inputTransferResponse.setAmount(1000.00);
+        inputTransferResponse.setAmount(Amount.parse("1000.00"));
         inputTransferResponse.setReferenceCode1("REF1");
         inputTransferResponse.setReferenceCode2("REF2");
         inputTransferResponse.setFirstName("testFirst");
@@ -63,4 +65,17 @@ class BankProxyGatewayTest {
         assertEquals(inputTransferResponse.getLastName(), response.getLastName());
     }
 
+    @Test
+    void testRequestTransferAsync() {
+
+        TransferResponse inputTransferResponse = getResponse();
+
+        CompletableFuture<TransferResponse> future = bankProxyGateway.requestTransferAsync(inputTransferResponse);
+
+        assertTrue(future.isDone());
+        TransferResponse response = future.join();
+        assertEquals(inputTransferResponse.getBankTransactionID(), response.getBankTransactionID());
+        assertEquals(inputTransferResponse.getAmount(), response.getAmount());
+    }
+
 }
@@ -0,0 +1,120 @@
+package com.ascendcorp.exam.proxy;
+
+import com.ascendcorp.exam.config.BankRateLimitProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BankRateLimiterTest {
+
+    private BankRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new BankRateLimiter(properties(1, Duration.ZERO));
+    }
+
+    @AfterEach
+    void tearDown() {
+        limiter.shutdown();
+    }
+
+    private static BankRateLimitProperties properties(double tps, Duration maxWait) {
+        BankRateLimitProperties properties = new BankRateLimitProperties();
+        properties.setEnabled(true);
+        properties.setMaxWait(maxWait);
+        BankRateLimitProperties.Quota quota = new BankRateLimitProperties.Quota();
+        quota.setTps(tps);
+        quota.setBurst(1);
+        properties.getBanks().put("B001", quota);
+        return properties;
+    }
+
+    @Test
+    void testOverQuotaFailsFastWithReasonCode() {
+
+        assertEquals("ok", limiter.execute("B001", () -> "ok"));
+        BankUnavailableException e = assertThrows(BankUnavailableException.class,
+                () -> limiter.execute("B001", () -> "ok"));
+
+        assertEquals(BankUnavailableException.RATE_LIMITED, e.getReasonCode());
+        assertEquals(1L, limiter.stats().get("rateLimit.rejected"));
+    }
+
+    @Test
+    void testBanksWithoutQuotaAreNotLimited() {
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("ok", limiter.execute("B999", () -> "ok"));
+        }
+        assertEquals(0L, limiter.stats().get("rateLimit.rejected"));
+    }
+
+    @Test
+    void testAsyncRejectionCompletesExceptionally() {
+
+        limiter.executeAsync("B001", () -> CompletableFuture.completedFuture("ok")).join();
+        CompletableFuture<String> second = limiter.executeAsync("B001", () -> CompletableFuture.completedFuture("ok"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> second.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof BankUnavailableException);
+    }
+
+    @Test
+    void testAsyncCallIsDelayedWhenWaitingIsAllowed() throws Exception {
+
+        limiter.shutdown();
+        limiter = new BankRateLimiter(properties(20, Duration.ofMillis(200)));
+
+        limiter.executeAsync("B001", () -> CompletableFuture.completedFuture("first")).join();
+        long start = System.nanoTime();
+        String second = limiter.executeAsync("B001", () -> CompletableFuture.completedFuture("second"))
+                .get(1, TimeUnit.SECONDS);
+
+        assertEquals("second", second);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(40));
+        assertEquals(1L, limiter.stats().get("rateLimit.delayed"));
+    }
+
+    @Test
+    void testCancelWhileDelayedSkipsCall() throws Exception {
+
+        limiter.shutdown();
+        limiter = new BankRateLimiter(properties(20, Duration.ofMillis(200)));
+
+        limiter.executeAsync("B001", () -> CompletableFuture.completedFuture("first")).join();
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> second = limiter.executeAsync("B001", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("second");
+        });
+        second.cancel(false);
+        Thread.sleep(150);
+
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void testReloadAppliesNewQuota() {
+
+        assertEquals("ok", limiter.execute("B001", () -> "ok"));
+        assertThrows(BankUnavailableException.class, () -> limiter.execute("B001", () -> "ok"));
+
+        BankRateLimitProperties disabled = properties(1, Duration.ZERO);
+        disabled.setEnabled(false);
+        limiter.reload(disabled);
+        assertEquals("ok", limiter.execute("B001", () -> "ok"));
+
+        // เปิดกลับมา bucket ต่อ state เดิม ไม่ได้ burst ฟรี
+        limiter.reload(properties(1, Duration.ZERO));
+        assertThrows(BankUnavailableException.class, () -> limiter.execute("B001", () -> "ok"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.ascendcorp.exam.proxy;
+
+import com.ascendcorp.exam.config.BankHedgeProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ascendcorp.exam.model.TransferResponses.transferResponse;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BankRequestHedgerTest {
+
+    private BankHedgeProperties properties;
+    private BankRequestHedger hedger;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BankHedgeProperties();
+        properties.setEnabled(true);
+        properties.setBanks(Collections.singleton("SLOW"));
+        properties.setMinSamples(5);
+        properties.setMinDelay(Duration.ofMillis(10));
+        properties.setBudgetPercent(100);
+        hedger = new BankRequestHedger(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hedger.shutdown();
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < 5; i++) {
+            hedger.execute(transferResponse("TX1", "SLOW"), () -> CompletableFuture.completedFuture("fast")).join();
+        }
+    }
+
+    @Test
+    void testHedgeWinsWhenPrimaryIsSlow() throws Exception {
+
+        warmUp();
+        CompletableFuture<String> primary = new CompletableFuture<>();
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = hedger.execute(transferResponse("TX1", "SLOW"), () -> attempts.incrementAndGet() == 1
+                ? primary
+                : CompletableFuture.completedFuture("hedge")).get(5, TimeUnit.SECONDS);
+
+        assertEquals("hedge", result);
+        assertEquals(2, attempts.get());
+        // primary ถูก cancel หลัง result complete (อาจยังไม่ทันตอน get คืน) รอดูได้จาก get ของ primary เอง
+        assertThrows(CancellationException.class, () -> primary.get(5, TimeUnit.SECONDS));
+        assertEquals(1L, hedger.stats().get("hedge.fired"));
+        assertEquals(1L, hedger.stats().get("hedge.won"));
+    }
+
+    @Test
+    void testNoHedgeForBanksNotOptedIn() {
+
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<String> primary = new CompletableFuture<>();
+
+        CompletableFuture<String> result = hedger.execute(transferResponse("TX1", "OTHER"), () -> {
+            attempts.incrementAndGet();
+            return primary;
+        });
+
+        assertSame(primary, result);
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void testBudgetLimitsHedges() throws Exception {
+
+        hedger.shutdown();
+        properties.setBudgetPercent(0);
+        hedger = new BankRequestHedger(properties);
+        warmUp();
+        CompletableFuture<String> primary = new CompletableFuture<>();
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = hedger.execute(transferResponse("TX1", "SLOW"), () -> {
+            attempts.incrementAndGet();
+            return primary;
+        });
+        Thread.sleep(100);
+        primary.complete("primary");
+
+        assertEquals("primary", result.join());
+        assertEquals(1, attempts.get());
+        assertEquals(1L, hedger.stats().get("hedge.budgetExhausted"));
+    }
+}
@@ -0,0 +1,192 @@
+package com.ascendcorp.exam.proxy;
+
+import com.ascendcorp.exam.config.HttpBankProperties;
+import com.ascendcorp.exam.model.Amount;
+import com.ascendcorp.exam.model.TransferResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.core5.pool.PoolStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static com.ascendcorp.exam.model.TransferResponses.transferResponse;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpBankProxyGatewayTest {
+
+    private HttpServer server;
+    private HttpBankProperties properties;
+    private HttpBankProxyGateway gateway;
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch received = new CountDownLatch(1);
+    private volatile boolean hang;
+
+    // ธนาคารจำลอง: echo body กลับพร้อม status ที่ test กำหนด หรือไม่ตอบเลยจนจบ test (hang)
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/inquiry", this::echo);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        properties = new HttpBankProperties();
+        properties.setResponseTimeout(Duration.ofSeconds(2));
+        properties.setHttp2(false);
+        HttpBankProperties.Bank bank = new HttpBankProperties.Bank();
+        bank.setUrl("http://localhost:" + server.getAddress().getPort());
+        bank.setMaxConnections(4);
+        properties.getBanks().put("B001", bank);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (gateway != null) {
+            gateway.shutdown();
+        }
+        server.stop(0);
+    }
+
+    private void echo(HttpExchange exchange) throws IOException {
+        byte[] body = readAll(exchange.getRequestBody());
+        if (hang) {
+            received.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status.get(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    // connection คืน pool หลัง future complete (callback complete future ก่อน HttpClient คืน connection)
+    // จึงรอจน stats นิ่งแทนการอ่านครั้งเดียว
+    private static PoolStats awaitPool(HttpBankProxyGateway gateway, Predicate<PoolStats> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        PoolStats stats = gateway.getPoolStats("B001");
+        while (!condition.test(stats) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            stats = gateway.getPoolStats("B001");
+        }
+        return stats;
+    }
+
+    private HttpBankProxyGateway gateway() {
+        gateway = new HttpBankProxyGateway(properties, new ObjectMapper());
+        return gateway;
+    }
+
+    @Test
+    void testRequestTransferRoundTrip() {
+
+        TransferResponse response = gateway().requestTransfer(transferResponse("TX1", "B001"));
+
+        assertEquals("TX1", response.getBankTransactionID());
+        assertEquals("approved", response.getResponseCode());
+        assertEquals(Amount.parse("1000.0"), response.getAmount());
+    }
+
+    @Test
+    void testNon2xxFails() {
+
+        status.set(502);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> gateway().requestTransfer(transferResponse("TX1", "B001")));
+        assertTrue(e.getMessage().contains("502"));
+    }
+
+    @Test
+    void testResponseTimeoutMapsToBankTimeout() {
+
+        // ธนาคารไม่ตอบเลย ทางเดียวที่ future จะจบภายใน 5 วินาทีคือ response timeout
+        hang = true;
+        properties.getBanks().get("B001").setResponseTimeout(Duration.ofMillis(200));
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> gateway().requestTransferAsync(transferResponse("TX1", "B001")).get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof BankTimeoutException, e.getCause().toString());
+    }
+
+    @Test
+    void testCancellingFutureAbortsExchange() throws Exception {
+
+        // response timeout นานกว่าเวลาที่รอ connection ต้องคืนเพราะ cancel เท่านั้น
+        properties.getBanks().get("B001").setResponseTimeout(Duration.ofSeconds(30));
+        HttpBankProxyGateway gateway = gateway();
+        // ใช้ connection ที่ keep-alive ไว้แล้ว (กรณีที่ cancel ของ httpclient เองไม่ปิด exchange)
+        gateway.requestTransfer(transferResponse("TX0", "B001"));
+        hang = true;
+        CompletableFuture<TransferResponse> future = gateway.requestTransferAsync(transferResponse("TX1", "B001"));
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        assertEquals(1, gateway.getPoolStats("B001").getLeased());
+
+        future.cancel(true);
+
+        // ไม่ต้องรอธนาคารตอบ connection ถูกปิดและคืนที่ใน pool
+        assertEquals(0, awaitPool(gateway, s -> s.getLeased() == 0).getLeased());
+    }
+
+    @Test
+    void testUnknownBankFails() {
+
+        assertThrows(IllegalStateException.class, () -> gateway().requestTransfer(transferResponse("TX1", "B999")));
+        assertNull(gateway.getPoolStats("B999"));
+    }
+
+    @Test
+    void testConnectionsAreReturnedToPoolAndReused() throws Exception {
+
+        HttpBankProxyGateway gateway = gateway();
+        for (int round = 0; round < 5; round++) {
+            List<CompletableFuture<TransferResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(gateway.requestTransferAsync(transferResponse("TX" + round + "-" + i, "B001")));
+            }
+            for (CompletableFuture<TransferResponse> future : futures) {
+                assertNotNull(future.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        // 100 requests ใช้ connection ไม่เกิน maxConnections และหลังเสร็จ connection ยังเปิดค้างไว้ใช้ต่อ
+        PoolStats stats = awaitPool(gateway, s -> s.getLeased() == 0 && s.getPending() == 0);
+        assertEquals(0, stats.getLeased());
+        assertEquals(0, stats.getPending());
+        assertEquals(4, stats.getMax());
+        assertTrue(stats.getAvailable() > 0 && stats.getAvailable() <= 4);
+    }
+}
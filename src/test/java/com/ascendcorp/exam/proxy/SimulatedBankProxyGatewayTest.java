@@ -0,0 +1,148 @@
+package com.ascendcorp.exam.proxy;
+
+import com.ascendcorp.exam.config.SimulatedBankProperties;
+import com.ascendcorp.exam.model.TransferResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.ascendcorp.exam.model.TransferResponses.transferResponse;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatedBankProxyGatewayTest {
+
+    private SimulatedBankProperties properties;
+    private SimulatedBankProxyGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SimulatedBankProperties();
+        properties.getLatency().setMean(Duration.ofMillis(30));
+        properties.setMalformedDescriptionPercent(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (gateway != null) {
+            gateway.shutdown();
+        }
+    }
+
+    private SimulatedBankProxyGateway gateway() {
+        gateway = new SimulatedBankProxyGateway(properties);
+        return gateway;
+    }
+
+    @Test
+    void testAsyncCompletesAfterLatencyWithoutBlockingCaller() throws Exception {
+
+        long start = System.nanoTime();
+        CompletableFuture<TransferResponse> future = gateway().requestTransferAsync(transferResponse("TX1", "B001"));
+        assertFalse(future.isDone());
+
+        TransferResponse response = future.get(5, TimeUnit.SECONDS);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(30));
+        assertEquals("TX1", response.getBankTransactionID());
+        assertNotNull(response.getResponseCode());
+    }
+
+    @Test
+    void testMixSelectsResponseCode() {
+
+        properties.getMix().setApproved(0);
+        properties.getMix().setInvalidData(0);
+        properties.getMix().setTransactionError(1);
+        properties.getMix().setUnknown(0);
+        SimulatedBankProxyGateway gateway = gateway();
+
+        for (int i = 0; i < 50; i++) {
+            TransferResponse response = gateway.respond(transferResponse("TX1", "B001"));
+            assertEquals("transaction_error", response.getResponseCode());
+            assertTrue(response.getDescription().contains(":"));
+        }
+    }
+
+    @Test
+    void testErrorDescriptionsUseBankFormat() {
+
+        SimulatedBankProxyGateway gateway = gateway();
+
+        for (int i = 0; i < 1000; i++) {
+            TransferResponse response = gateway.respond(transferResponse("TX1", "B001"));
+            if ("approved".equals(response.getResponseCode())) {
+                assertEquals("Transaction approved", response.getDescription());
+            } else {
+                assertTrue(response.getDescription().matches("\\d+:[^:]+(:[^:]+)?"), response.getDescription());
+            }
+        }
+    }
+
+    @Test
+    void testSlowCallTimesOut() {
+
+        properties.getLatency().setMean(Duration.ofSeconds(10));
+        properties.setTimeout(Duration.ofMillis(50));
+        SimulatedBankProxyGateway gateway = gateway();
+
+        assertThrows(BankTimeoutException.class, () -> gateway.requestTransfer(transferResponse("TX1", "B001")));
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> gateway.requestTransferAsync(transferResponse("TX1", "B001")).get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof BankTimeoutException);
+    }
+
+    @Test
+    void testHangingCallTimesOut() {
+
+        properties.setHangPercent(100);
+        properties.setTimeout(Duration.ofMillis(20));
+
+        assertThrows(BankTimeoutException.class, () -> gateway().requestTransfer(transferResponse("TX1", "B001")));
+    }
+
+    @Test
+    void testThroughputCapQueuesCalls() {
+
+        properties.setMaxTps(100);
+        SimulatedBankProxyGateway gateway = gateway();
+        long now = System.nanoTime();
+
+        assertEquals(0, gateway.queueDelayNanos(now));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10), gateway.queueDelayNanos(now));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(20), gateway.queueDelayNanos(now));
+        // คิวว่างแล้ว ไม่ต้องรอ
+        assertEquals(0, gateway.queueDelayNanos(now + TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Test
+    void testLatencyDistributions() {
+
+        Random random = new Random(42);
+        properties.getLatency().setDistribution(SimulatedBankProperties.Distribution.PARETO);
+        properties.getLatency().setParetoScale(Duration.ofMillis(20));
+        properties.getLatency().setMax(Duration.ofSeconds(1));
+        SimulatedBankProxyGateway gateway = gateway();
+
+        long max = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long latency = gateway.sampleLatencyNanos(random);
+            assertTrue(latency >= TimeUnit.MILLISECONDS.toNanos(20));
+            assertTrue(latency <= TimeUnit.SECONDS.toNanos(1));
+            max = Math.max(max, latency);
+        }
+        // long tail: มีบาง call ช้ากว่าค่าต่ำสุดหลายสิบเท่า
+        assertTrue(max > TimeUnit.MILLISECONDS.toNanos(400));
+
+        properties.getLatency().setDistribution(SimulatedBankProperties.Distribution.NORMAL);
+        properties.getLatency().setMean(Duration.ofMillis(10));
+        properties.getLatency().setStdDev(Duration.ofMillis(50));
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(gateway.sampleLatencyNanos(random) >= 0);
+        }
+    }
+}
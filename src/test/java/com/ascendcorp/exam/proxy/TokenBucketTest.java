@@ -0,0 +1,87 @@
+package com.ascendcorp.exam.proxy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void testBurstThenPacedAtRate() {
+
+        long now = 1_000_000 * MS;
+        TokenBucket bucket = new TokenBucket(100, 3, now);
+
+        assertEquals(0, bucket.tryAcquire(now, 0));
+        assertEquals(0, bucket.tryAcquire(now, 0));
+        assertEquals(0, bucket.tryAcquire(now, 0));
+        assertEquals(-1, bucket.tryAcquire(now, 0));
+        // หมด burst แล้ว token ถัดไปมาอีก 10ms (100 tps)
+        assertEquals(10 * MS, bucket.tryAcquire(now, 10 * MS));
+        assertEquals(-1, bucket.tryAcquire(now, 15 * MS));
+        assertEquals(20 * MS, bucket.tryAcquire(now, 20 * MS));
+    }
+
+    @Test
+    void testRejectedCallDoesNotConsumeToken() {
+
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(10, 1, now);
+
+        assertEquals(0, bucket.tryAcquire(now, 0));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(-1, bucket.tryAcquire(now, 0));
+        }
+        assertEquals(0, bucket.tryAcquire(now + 100 * MS, 0));
+    }
+
+    @Test
+    void testRefillsAfterIdle() {
+
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(1000, 5, now);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(now, 0));
+        }
+        assertEquals(-1, bucket.tryAcquire(now, 0));
+
+        long later = now + TimeUnit.SECONDS.toNanos(1);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(later, 0));
+        }
+        assertEquals(-1, bucket.tryAcquire(later, 0));
+    }
+
+    @Test
+    void testConcurrentCallersNeverExceedBurst() throws Exception {
+
+        long now = System.nanoTime();
+        TokenBucket bucket = new TokenBucket(1, 50, now);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 100; i++) {
+                    if (bucket.tryAcquire(now, 0) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(50, granted.get());
+    }
+}
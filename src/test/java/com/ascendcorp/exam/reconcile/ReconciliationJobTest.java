@@ -0,0 +1,211 @@
+package com.ascendcorp.exam.reconcile;
+
+import com.ascendcorp.exam.config.BankGuardProperties;
+import com.ascendcorp.exam.config.BankHedgeProperties;
+import com.ascendcorp.exam.config.BankRateLimitProperties;
+import com.ascendcorp.exam.config.ReconciliationProperties;
+import com.ascendcorp.exam.journal.InquiryJournal;
+import com.ascendcorp.exam.model.ReconciliationItemDTO;
+import com.ascendcorp.exam.proxy.BankCallGuard;
+import com.ascendcorp.exam.proxy.BankProxyGateway;
+import com.ascendcorp.exam.proxy.BankRateLimiter;
+import com.ascendcorp.exam.proxy.BankRequestHedger;
+import com.ascendcorp.exam.service.InquiryMetrics;
+import com.ascendcorp.exam.service.InquiryResultCache;
+import com.ascendcorp.exam.service.InquiryService;
+import com.ascendcorp.exam.service.ResponseCodeTable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReconciliationJobTest {
+
+    private static final String APPROVED = "{\"bankTransactionID\":\"TX%d\",\"responseCode\":\"approved\","
+            + "\"tranDateTime\":\"2024-01-31\",\"channel\":\"ATM\",\"locationCode\":\"LOC001\",\"bankCode\":\"B001\","
+            + "\"bankNumber\":\"123456\",\"description\":\"Transaction approved\",\"amount\":1000.0,"
+            + "\"firstName\":\"John\",\"lastName\":\"Doe\"}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ReconciliationProperties reconciliationProperties;
+    private ReconciliationJob reconciliationJob;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        InquiryService inquiryService = new InquiryService();
+        ReflectionTestUtils.setField(inquiryService, "bankProxyGateway", new BankProxyGateway());
+        ReflectionTestUtils.setField(inquiryService, "inquiryResultCache", new InquiryResultCache());
+        ReflectionTestUtils.setField(inquiryService, "bankCallGuard", new BankCallGuard(new BankGuardProperties()));
+        ReflectionTestUtils.setField(inquiryService, "bankRequestHedger", new BankRequestHedger(new BankHedgeProperties()));
+        ReflectionTestUtils.setField(inquiryService, "inquiryMetrics", new InquiryMetrics());
+        ReflectionTestUtils.setField(inquiryService, "responseCodeTable", new ResponseCodeTable());
+        ReflectionTestUtils.setField(inquiryService, "inquiryJournal", new InquiryJournal());
+        ReflectionTestUtils.setField(inquiryService, "bankRateLimiter", new BankRateLimiter(new BankRateLimitProperties()));
+
+        reconciliationProperties = new ReconciliationProperties();
+        reconciliationProperties.setChunkSize(DataSize.ofBytes(1024));
+        reconciliationProperties.setParallelism(3);
+        reconciliationProperties.setMaxInFlight(6);
+
+        reconciliationJob = new ReconciliationJob();
+        ReflectionTestUtils.setField(reconciliationJob, "inquiryService", inquiryService);
+        ReflectionTestUtils.setField(reconciliationJob, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(reconciliationJob, "reconciliationProperties", reconciliationProperties);
+    }
+
+    private Path ndjson(int records) throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < records; i++) {
+            content.append(String.format(APPROVED, i)).append('\n');
+        }
+        Path input = dir.resolve("inquiries.ndjson");
+        Files.write(input, content.toString().getBytes(StandardCharsets.UTF_8));
+        return input;
+    }
+
+    private List<ReconciliationItemDTO> read(Path output) throws Exception {
+        List<ReconciliationItemDTO> items = new ArrayList<>();
+        for (String line : Files.readAllLines(output, StandardCharsets.UTF_8)) {
+            items.add(objectMapper.readValue(line, ReconciliationItemDTO.class));
+        }
+        items.sort(Comparator.comparingLong(ReconciliationItemDTO::getOffset));
+        return items;
+    }
+
+    @Test
+    void testNdjsonWritesOneResultPerRecord() throws Exception {
+
+        Path output = dir.resolve("result.ndjson");
+        Map<String, Long> stats = reconciliationJob.run(ndjson(40), output);
+
+        List<ReconciliationItemDTO> items = read(output);
+        assertEquals(40, items.size());
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals("TX" + i, items.get(i).getTranId());
+            assertEquals("200", items.get(i).getResult().getReasonCode());
+            assertNull(items.get(i).getError());
+        }
+        assertEquals(0, items.get(0).getOffset());
+        assertEquals(40L, stats.get("reconcile.records"));
+        assertEquals(0L, stats.get("reconcile.failed"));
+        assertTrue(stats.get("reconcile.chunks") > 1);
+    }
+
+    @Test
+    void testCsvWithHeader() throws Exception {
+
+        Path input = dir.resolve("inquiries.csv");
+        Files.write(input, ("\uFEFFbankTransactionID,responseCode,tranDateTime,channel,location_code,bankCode,bankNumber,amount,description,first_name,LastName,ignored\r\n"
+                + "TX1,approved,2024-01-31,ATM,LOC001,B001,123456,1000.0,\"Transaction, approved\",John,Doe,x\r\n"
+                + "TX2,approved,2024-01-31,ATM,LOC001,B001,123456,,,John,Doe,\r\n"
+                + "TX3,approved,31/01/2024,ATM,LOC001,B001,123456,10,,John,Doe,\r\n").getBytes(StandardCharsets.UTF_8));
+        Path output = dir.resolve("result.ndjson");
+
+        reconciliationJob.run(input, output);
+
+        List<ReconciliationItemDTO> items = read(output);
+        assertEquals(3, items.size());
+        assertEquals("TX1", items.get(0).getTranId());
+        assertEquals("200", items.get(0).getResult().getReasonCode());
+        assertEquals("Amount must more than zero!", items.get(1).getError());
+        assertTrue(items.get(2).getError().startsWith("Invalid record"));
+    }
+
+    @Test
+    void testInvalidRecordDoesNotStopChunk() throws Exception {
+
+        Path input = dir.resolve("inquiries.ndjson");
+        Files.write(input, (String.format(APPROVED, 1) + "\n{\"tranDateTime\":\"not-a-date\"}\n\n{broken\n"
+                + String.format(APPROVED, 2)).getBytes(StandardCharsets.UTF_8));
+        Path output = dir.resolve("result.ndjson");
+
+        Map<String, Long> stats = reconciliationJob.run(input, output);
+
+        List<ReconciliationItemDTO> items = read(output);
+        assertEquals(4, items.size());
+        assertNull(items.get(0).getError());
+        assertTrue(items.get(1).getError().startsWith("Invalid record"));
+        assertTrue(items.get(2).getError().startsWith("Invalid record"));
+        assertEquals("TX2", items.get(3).getTranId());
+        assertEquals(2L, stats.get("reconcile.failed"));
+    }
+
+    @Test
+    void testResumeSkipsCommittedChunksAndDropsUncommittedOutput() throws Exception {
+
+        Path input = ndjson(40);
+        Path output = dir.resolve("result.ndjson");
+        Path checkpoint = dir.resolve("result.ndjson.checkpoint");
+        reconciliationJob.run(input, output);
+        List<String> lines = Files.readAllLines(checkpoint, StandardCharsets.UTF_8);
+        int chunks = lines.size() - 1;
+
+        // จำลอง crash: checkpoint เหลือแค่ chunk แรกที่ commit ตามด้วยบรรทัดที่เขียนไม่ครบ และ output มีผลที่ยังไม่ commit ต่อท้าย
+        byte[] committed = Arrays.copyOf(Files.readAllBytes(output), Integer.parseInt(lines.get(1).split(" ")[1]));
+        Files.write(checkpoint, (lines.get(0) + "\n" + lines.get(1) + "\n" + lines.get(2).substring(0, 2))
+                .getBytes(StandardCharsets.UTF_8));
+        Files.write(output, "{\"partial\":".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        ReconciliationJob resumed = new ReconciliationJob();
+        ReflectionTestUtils.setField(resumed, "inquiryService", ReflectionTestUtils.getField(reconciliationJob, "inquiryService"));
+        ReflectionTestUtils.setField(resumed, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(resumed, "reconciliationProperties", reconciliationProperties);
+        Map<String, Long> stats = resumed.run(input, output);
+
+        assertEquals(1L, stats.get("reconcile.skipped"));
+        assertEquals((long) chunks - 1, stats.get("reconcile.chunks"));
+        List<ReconciliationItemDTO> items = read(output);
+        assertEquals(40, items.size());
+        assertArrayEquals(committed, Arrays.copyOf(Files.readAllBytes(output), committed.length));
+
+        // รันซ้ำหลังเสร็จแล้วไม่ทำอะไรเพิ่ม stats เป็นของรอบนี้เท่านั้น
+        long size = Files.size(output);
+        Map<String, Long> again = resumed.run(input, output);
+        assertEquals(size, Files.size(output));
+        assertEquals(0L, again.get("reconcile.chunks"));
+        assertEquals(0L, again.get("reconcile.records"));
+        assertEquals((long) chunks, again.get("reconcile.skipped"));
+    }
+
+    @Test
+    void testMissingOutputWithCheckpointIsRejected() throws Exception {
+
+        Path input = ndjson(10);
+        Path output = dir.resolve("result.ndjson");
+        reconciliationJob.run(input, output);
+        Files.delete(output);
+
+        assertThrows(IllegalStateException.class, () -> reconciliationJob.run(input, output));
+        assertEquals(0, Files.size(output));
+    }
+
+    @Test
+    void testCheckpointForDifferentChunkSizeIsRejected() throws Exception {
+
+        Path input = ndjson(10);
+        Path output = dir.resolve("result.ndjson");
+        reconciliationJob.run(input, output);
+
+        reconciliationProperties.setChunkSize(DataSize.ofBytes(2048));
+
+        assertThrows(IllegalStateException.class, () -> reconciliationJob.run(input, output));
+    }
+}
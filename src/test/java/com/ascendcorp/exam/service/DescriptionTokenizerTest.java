@@ -0,0 +1,52 @@
+package com.ascendcorp.exam.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DescriptionTokenizerTest {
+
+    private static final String[] DESCRIPTIONS = {
+            "", ":", "::", "a", "a:", "a::", ":a", "::a", "a:b", "a:b:", "a::b", "a:b:c", "a:b:c:",
+            "98:Transaction issue", "98:", "98::x", "ERROR:CODE:Specific issue", "400:Invalid:Invalid Account Number",
+            "501:Unknown Error", ":::a:::", "a:b:c:d:e"
+    };
+
+    @Test
+    void testSegmentCountMatchesSplit() {
+
+        for (String description : DESCRIPTIONS) {
+            assertEquals(description.split(":").length, DescriptionTokenizer.segmentCount(description), description);
+        }
+    }
+
+    @Test
+    void testSegmentsMatchSplit() {
+
+        for (String description : DESCRIPTIONS) {
+            String[] expected = description.split(":");
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i], DescriptionTokenizer.segment(description, i), description + " #" + i);
+            }
+        }
+    }
+
+    @Test
+    void testSegmentEqualsIgnoreCase() {
+
+        assertTrue(DescriptionTokenizer.segmentEqualsIgnoreCase("98:Transaction issue", 0, "98"));
+        assertTrue(DescriptionTokenizer.segmentEqualsIgnoreCase("ERROR:code:x", 1, "CODE"));
+        assertFalse(DescriptionTokenizer.segmentEqualsIgnoreCase("981:Transaction issue", 0, "98"));
+        assertFalse(DescriptionTokenizer.segmentEqualsIgnoreCase("9:8", 0, "98"));
+        assertFalse(DescriptionTokenizer.segmentEqualsIgnoreCase("98", 1, "98"));
+        assertFalse(DescriptionTokenizer.segmentEqualsIgnoreCase("98:x", 2, "98"));
+    }
+
+    @Test
+    void testSegmentPastLastSeparatorIsMissing() {
+
+        assertNull(DescriptionTokenizer.segment("98", 1));
+        assertNull(DescriptionTokenizer.segment("a:b", 2));
+        assertEquals("", DescriptionTokenizer.segment("a:", 1));
+    }
+}
@@ -0,0 +1,121 @@
+package com.ascendcorp.exam.service;
+
+import com.ascendcorp.exam.model.InquiryServiceResultDTO;
+import com.ascendcorp.exam.model.TransferResponse;
+import com.ascendcorp.exam.model.TransferResponses;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InquiryMetricsTest {
+
+    private static TransferResponse request(String bankCode, String channel) {
+        TransferResponse request = TransferResponses.transferResponse("TX1", bankCode);
+        request.setChannel(channel);
+        return request;
+    }
+
+    private static InquiryServiceResultDTO result(String reasonCode) {
+        InquiryServiceResultDTO result = new InquiryServiceResultDTO();
+        result.setReasonCode(reasonCode);
+        return result;
+    }
+
+    @Test
+    void testInquiryRecordsLatencyAndReasonCode() {
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        InquiryMetrics metrics = new InquiryMetrics(registry, 64);
+
+        long start = metrics.inquiryStarted();
+        assertEquals(1.0, registry.get("inquiry.in.flight").gauge().value());
+        metrics.inquiryCompleted(request("B001", "ATM"), result("200"), start);
+
+        assertEquals(0.0, registry.get("inquiry.in.flight").gauge().value());
+        assertEquals(1, registry.get("inquiry.latency").tag("channel", "ATM").tag("outcome", "success").timer().count());
+        assertEquals(1.0, registry.get("inquiry.results").tag("reasonCode", "200").counter().count());
+    }
+
+    @Test
+    void testFailedInquiryIsTimedAsError() {
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        InquiryMetrics metrics = new InquiryMetrics(registry, 64);
+
+        metrics.inquiryCompleted(request("B001", "ATM"), null, metrics.inquiryStarted());
+
+        assertEquals(1, registry.get("inquiry.latency").tag("channel", "ATM").tag("outcome", "error").timer().count());
+        assertTrue(registry.find("inquiry.results").counters().isEmpty());
+    }
+
+    @Test
+    void testGatewayLatencyIsTaggedByBank() {
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        InquiryMetrics metrics = new InquiryMetrics(registry, 64);
+
+        metrics.gatewayCompleted(request("B001", "ATM"), metrics.gatewayStarted(), false);
+        metrics.gatewayCompleted(request("B001", "ATM"), metrics.gatewayStarted(), true);
+
+        assertEquals(0.0, registry.get("bank.gateway.in.flight").gauge().value());
+        assertEquals(1, registry.get("bank.gateway.latency")
+                .tag("bankCode", "B001").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get("bank.gateway.latency")
+                .tag("bankCode", "B001").tag("outcome", "error").timer().count());
+        assertNull(registry.get("bank.gateway.latency").timer().getId().getTag("channel"));
+    }
+
+    @Test
+    void testTagValuesBeyondLimitCollapseToOther() {
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        InquiryMetrics metrics = new InquiryMetrics(registry, 2);
+
+        for (int i = 0; i < 100; i++) {
+            metrics.gatewayCompleted(request("B" + i, "CH" + i), metrics.gatewayStarted(), i % 2 == 0);
+            metrics.inquiryCompleted(request("B" + i, "CH" + i), i % 2 == 0 ? null : result("200"),
+                    metrics.inquiryStarted());
+        }
+
+        // 2 ค่าแรก + other แต่ละค่ามี timer success / error
+        assertEquals(3 * 2, registry.find("bank.gateway.latency").timers().size());
+        assertEquals(98, registry.find("bank.gateway.latency").tag("bankCode", InquiryMetrics.OTHER)
+                .timers().stream().mapToLong(Timer::count).sum());
+        assertEquals(3 * 2, registry.find("inquiry.latency").timers().size());
+        assertEquals(98, registry.find("inquiry.latency").tag("channel", InquiryMetrics.OTHER)
+                .timers().stream().mapToLong(Timer::count).sum());
+    }
+
+    @Test
+    void testMissingAndOversizedTagValues() {
+
+        InquiryMetrics.BoundedTagValues values = new InquiryMetrics.BoundedTagValues(10);
+
+        assertEquals(InquiryMetrics.NONE, values.of(null));
+        assertEquals(InquiryMetrics.NONE, values.of(""));
+        assertEquals(InquiryMetrics.OTHER, values.of("Insufficient funds in the account of the customer"));
+        assertEquals("98", values.of("98"));
+        assertEquals("98", values.of("98"));
+    }
+
+    @Test
+    void testValidationAndBranchCounters() {
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        InquiryMetrics metrics = new InquiryMetrics(registry, 64);
+
+        metrics.validationFailed("bankCode");
+        metrics.validationFailed("bankCode");
+        metrics.responseBranch("approved");
+        metrics.responseBranch("something_else");
+
+        assertEquals(2.0, registry.get("inquiry.validation.failures").tag("field", "bankCode").counter().count());
+        assertEquals(1.0, registry.get("inquiry.response.branch").tag("branch", "approved").counter().count());
+        assertEquals(1.0, registry.get("inquiry.response.branch").tag("branch", "unsupported").counter().count());
+        assertEquals(0.0, registry.get("inquiry.response.branch").tag("branch", "unknown").counter().count());
+        assertEquals(5, registry.find("inquiry.response.branch").counters().size());
+    }
+}
@@ -0,0 +1,99 @@
+package com.ascendcorp.exam.service;
+
+import com.ascendcorp.exam.config.ResponseCodeProperties;
+import com.ascendcorp.exam.config.ResponseCodeProperties.Handler;
+import com.ascendcorp.exam.model.InquiryServiceResultDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InquiryResultCacheTest {
+
+    private static final TransactionKey KEY = new TransactionKey("TX1", "B001", "123456");
+
+    private static InquiryServiceResultDTO result(String reasonCode) {
+        InquiryServiceResultDTO result = new InquiryServiceResultDTO();
+        result.setTranID("TX1");
+        result.setReasonCode(reasonCode);
+        return result;
+    }
+
+    @Test
+    void testFinalOutcomesAreCached() {
+
+        InquiryResultCache cache = new InquiryResultCache(new ResponseCodeTable(), true, 100, Duration.ofMinutes(1));
+
+        cache.put(KEY, "APPROVED", result("200"));
+
+        assertEquals("200", cache.get(KEY).getReasonCode());
+        assertEquals(1L, cache.stats().get("cache.hits"));
+    }
+
+    @Test
+    void testNonFinalOutcomesAreNotCached() {
+
+        InquiryResultCache cache = new InquiryResultCache(new ResponseCodeTable(), true, 100, Duration.ofMinutes(1));
+
+        cache.put(KEY, "transaction_error", result("98"));
+        cache.put(new TransactionKey("TX2", "B001", "123456"), "unknown", result("501"));
+
+        assertNull(cache.get(KEY));
+        assertEquals(1L, cache.stats().get("cache.misses"));
+        assertEquals(0L, cache.stats().get("cache.size"));
+    }
+
+    @Test
+    void testFinalityFollowsConfiguredHandler() {
+
+        ResponseCodeProperties properties = new ResponseCodeProperties();
+        ResponseCodeProperties.Mapping approved = new ResponseCodeProperties.Mapping();
+        approved.setHandler(Handler.APPROVED);
+        properties.getCodes().put("partial_approved", approved);
+        InquiryResultCache cache = new InquiryResultCache(new ResponseCodeTable(properties), true, 100, Duration.ofMinutes(1));
+
+        cache.put(KEY, "PARTIAL_APPROVED", result("200"));
+        cache.put(new TransactionKey("TX2", "B001", "123456"), "unsupported_code", result("501"));
+
+        assertNotNull(cache.get(KEY));
+        assertEquals(1L, cache.stats().get("cache.size"));
+    }
+
+    @Test
+    void testCallersCannotMutateCachedEntry() {
+
+        InquiryResultCache cache = new InquiryResultCache(new ResponseCodeTable(), true, 100, Duration.ofMinutes(1));
+        InquiryServiceResultDTO stored = result("200");
+
+        cache.put(KEY, "approved", stored);
+        stored.setReasonCode("changed after put");
+        cache.get(KEY).setReasonCode("changed after get");
+
+        assertEquals("200", cache.get(KEY).getReasonCode());
+        assertNotSame(cache.get(KEY), cache.get(KEY));
+        assertEquals("TX1", cache.get(KEY).getTranID());
+    }
+
+    @Test
+    void testKeyIncludesBankCodeAndNumber() {
+
+        InquiryResultCache cache = new InquiryResultCache(new ResponseCodeTable(), true, 100, Duration.ofMinutes(1));
+
+        cache.put(KEY, "invalid_data", result("400"));
+
+        assertNull(cache.get(new TransactionKey("TX1", "B002", "123456")));
+        assertNotNull(cache.get(KEY));
+    }
+
+    @Test
+    void testDisabledCacheStoresNothing() {
+
+        InquiryResultCache cache = new InquiryResultCache();
+
+        cache.put(KEY, "approved", result("200"));
+
+        assertNull(cache.get(KEY));
+        assertTrue(cache.stats().isEmpty());
+    }
+}
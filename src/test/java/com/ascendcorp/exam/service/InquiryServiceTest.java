@@ -1,20 +1,37 @@
 package com.ascendcorp.exam.service;
 
+import com.ascendcorp.exam.model.Amount;
+import com.ascendcorp.exam.model.FieldViolation;
+import com.ascendcorp.exam.model.InquiryBatchItemDTO;
 import com.ascendcorp.exam.model.InquiryServiceResultDTO;
 import com.ascendcorp.exam.model.TransferResponse;
+import com.ascendcorp.exam.config.BankGuardProperties;
+import com.ascendcorp.exam.config.BankHedgeProperties;
+import com.ascendcorp.exam.config.BankRateLimitProperties;
+import com.ascendcorp.exam.config.ResponseCodeProperties;
+import com.ascendcorp.exam.journal.InquiryJournal;
+import com.ascendcorp.exam.proxy.BankCallGuard;
 import com.ascendcorp.exam.proxy.BankProxyGateway;
+import com.ascendcorp.exam.proxy.BankRateLimiter;
+import com.ascendcorp.exam.proxy.BankRequestHedger;
+import com.ascendcorp.exam.proxy.BankUnavailableException;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertNotNull;
+import static junit.framework.TestCase.assertNull;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,6 +47,20 @@ public class InquiryServiceTest {
     private InquiryService inquiryService;
     @Mock
     private BankProxyGateway bankProxyGateway;
+    @Spy
+    private InquiryResultCache inquiryResultCache = new InquiryResultCache();
+    @Spy
+    private BankCallGuard bankCallGuard = new BankCallGuard(new BankGuardProperties());
+    @Spy
+    private BankRequestHedger bankRequestHedger = new BankRequestHedger(new BankHedgeProperties());
+    @Spy
+    private BankRateLimiter bankRateLimiter = new BankRateLimiter(new BankRateLimitProperties());
+    @Spy
+    private InquiryMetrics inquiryMetrics = new InquiryMetrics();
+    @Spy
+    private ResponseCodeTable responseCodeTable = new ResponseCodeTable();
+    @Spy
+    private InquiryJournal inquiryJournal = new InquiryJournal();
 
     private static TransferResponse getTransferResponse() {
         TransferResponse mockResponse = new TransferResponse();
@@ -43,7 +74,7 @@ public class InquiryServiceTest {
         mockResponse.setDescription("501:Unknown Error");
         mockResponse.setReferenceCode1("REF001");
         mockResponse.setReferenceCode2("REF002");
-        mockResponse.setAmount(1000.0);
+        mockResponse.setAmount(Amount.parse("1000.0"));
         mockResponse.setFirstName("testFirst");
         mockResponse.setLastName("testLast");
         return mockResponse;
@@ -57,7 +88,7 @@ public class InquiryServiceTest {
         mockResponse.setDescription("Transaction approved");
         mockResponse.setReferenceCode1("REF001");
         mockResponse.setReferenceCode2("REF002");
-        mockResponse.setAmount(1000.0);
+        mockResponse.setAmount(Amount.parse("1000.0"));
 
         when(bankProxyGateway.requestTransfer(any(TransferResponse.class)))
                 .thenReturn(mockResponse);
@@ -69,12 +100,113 @@ public class InquiryServiceTest {
         assertEquals("Transaction approved", result.getReasonDesc());
         assertEquals("REF001", result.getRef_no1());
         assertEquals("REF002", result.getRef_no2());
-        assertEquals("1000.0", result.getAmount());
+        assertEquals("1000.0", result.getAmount().toString());
         assertEquals("1", result.getTranID());
 
         verify(bankProxyGateway, times(1)).requestTransfer(any(TransferResponse.class));
     }
 
+    @Test
+    public void testValidInquiryAsyncApprovedResponse() {
+
+        TransferResponse mockResponse = getTransferResponse();
+        mockResponse.setResponseCode("approved");
+        mockResponse.setDescription("Transaction approved");
+
+        when(bankProxyGateway.requestTransferAsync(any(TransferResponse.class)))
+                .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        InquiryServiceResultDTO result = inquiryService.inquiryAsync(mockResponse).join();
+
+        assertNotNull(result);
+        assertEquals("200", result.getReasonCode());
+        assertEquals("Transaction approved", result.getReasonDesc());
+        assertEquals("1", result.getTranID());
+
+        verify(bankProxyGateway, times(1)).requestTransferAsync(any(TransferResponse.class));
+        verify(bankProxyGateway, never()).requestTransfer(any(TransferResponse.class));
+    }
+
+    @Test
+    public void testInquiryAsyncValidatesBeforeCallingBank() {
+
+        TransferResponse transferResponse = getTransferResponse();
+        transferResponse.setBankTransactionID(null);
+
+        assertThrows(RequestValidationException.class, () -> inquiryService.inquiryAsync(transferResponse));
+
+        verify(bankProxyGateway, never()).requestTransferAsync(any(TransferResponse.class));
+    }
+
+    @Test
+    public void testInquiryBatchReturnsPerItemResultsAndErrors() {
+
+        TransferResponse approved = getTransferResponse();
+        approved.setResponseCode("approved");
+        approved.setDescription("Transaction approved");
+
+        TransferResponse invalid = getTransferResponse();
+        invalid.setChannel(null);
+
+        TransferResponse unsupported = getTransferResponse();
+        unsupported.setResponseCode("unsupported_code");
+
+        when(bankProxyGateway.requestTransferAsync(any(TransferResponse.class)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+
+        List<InquiryBatchItemDTO> results = inquiryService.inquiryBatch(Arrays.asList(approved, invalid, unsupported));
+
+        assertEquals(3, results.size());
+        assertEquals(0, results.get(0).getIndex());
+        assertEquals("200", results.get(0).getResult().getReasonCode());
+        assertNull(results.get(0).getError());
+        assertEquals(1, results.get(1).getIndex());
+        assertNull(results.get(1).getResult());
+        assertEquals("Channel is required!", results.get(1).getError());
+        assertEquals("Unsupported error reason code", results.get(2).getError());
+
+        verify(bankProxyGateway, times(2)).requestTransferAsync(any(TransferResponse.class));
+    }
+
+    @Test
+    public void testInquiryItemAsyncReturnsResultOrError() {
+
+        TransferResponse approved = getTransferResponse();
+        approved.setResponseCode("approved");
+        approved.setDescription("Transaction approved");
+
+        TransferResponse invalid = getTransferResponse();
+        invalid.setBankNumber("");
+
+        when(bankProxyGateway.requestTransferAsync(any(TransferResponse.class)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+
+        InquiryBatchItemDTO result = inquiryService.inquiryItemAsync(4, approved).join();
+        InquiryBatchItemDTO error = inquiryService.inquiryItemAsync(5, invalid).join();
+
+        assertEquals(4, result.getIndex());
+        assertEquals("200", result.getResult().getReasonCode());
+        assertEquals(5, error.getIndex());
+        assertEquals("Bank Number is required!", error.getError());
+        verify(bankProxyGateway, times(1)).requestTransferAsync(any(TransferResponse.class));
+    }
+
+    @Test
+    public void testBankUnavailableReturnsReasonCode() {
+
+        TransferResponse mockResponse = getTransferResponse();
+
+        when(bankProxyGateway.requestTransfer(any(TransferResponse.class)))
+                .thenThrow(new BankUnavailableException(BankUnavailableException.CIRCUIT_OPEN, "Bank 1 is temporarily unavailable"));
+
+        InquiryServiceResultDTO result = inquiryService.inquiry(mockResponse);
+
+        assertNotNull(result);
+        assertEquals("1", result.getTranID());
+        assertEquals("503", result.getReasonCode());
+        assertEquals("Bank 1 is temporarily unavailable", result.getReasonDesc());
+    }
+
     @Test
     public void testInvalidDataResponse() {
 
@@ -157,6 +289,26 @@ public class InquiryServiceTest {
         assertEquals("Unsupported error reason code", exception.getMessage());
     }
 
+    @Test
+    public void testProcessResponse_ConfiguredResponseCode() {
+
+        ResponseCodeProperties.Mapping mapping = new ResponseCodeProperties.Mapping();
+        mapping.setHandler(ResponseCodeProperties.Handler.TRANSACTION_ERROR);
+        mapping.setReasonCode("502");
+        mapping.setReasonDesc("Bank Timeout");
+        ResponseCodeProperties properties = new ResponseCodeProperties();
+        properties.getCodes().put("timeout", mapping);
+        responseCodeTable.reload(properties);
+
+        TransferResponse response = new TransferResponse();
+        response.setResponseCode("TimeOut");
+        InquiryServiceResultDTO result = inquiryService.processResponse(response);
+
+        assertEquals("502", result.getReasonCode());
+        assertEquals("Bank Timeout", result.getReasonDesc());
+        verify(inquiryMetrics).responseBranch("transaction_error");
+    }
+
     @Test
     public void testHandleInvalidData_NullDescription() {
 
@@ -271,6 +423,48 @@ public class InquiryServiceTest {
         assertEquals("General issue", resultDTO.getReasonDesc());
     }
 
+    @Test
+    public void testHandleTransactionError_TrailingSeparatorIsIgnored() {
+
+        TransferResponse response = new TransferResponse();
+        InquiryServiceResultDTO resultDTO = new InquiryServiceResultDTO();
+
+        response.setDescription("ERROR:General issue:");
+
+        inquiryService.handleTransactionError(response, resultDTO);
+
+        assertEquals("ERROR", resultDTO.getReasonCode());
+        assertEquals("General issue", resultDTO.getReasonDesc());
+    }
+
+    @Test
+    public void testHandleTransactionError_98WithThreeParts() {
+
+        TransferResponse response = new TransferResponse();
+        InquiryServiceResultDTO resultDTO = new InquiryServiceResultDTO();
+
+        response.setDescription("98:Transaction issue:Detail");
+
+        inquiryService.handleTransactionError(response, resultDTO);
+
+        assertEquals("98", resultDTO.getReasonCode());
+        assertEquals("Transaction issue", resultDTO.getReasonDesc());
+    }
+
+    @Test
+    public void testHandleInvalidData_EmptyMiddlePart() {
+
+        TransferResponse response = new TransferResponse();
+        InquiryServiceResultDTO resultDTO = new InquiryServiceResultDTO();
+
+        response.setDescription("400::Invalid Account Number");
+
+        inquiryService.handleInvalidData(response, resultDTO);
+
+        assertEquals("400", resultDTO.getReasonCode());
+        assertEquals("Invalid Account Number", resultDTO.getReasonDesc());
+    }
+
     @Test
     public void testHandleUnknownError_NullDescription() {
 
@@ -324,11 +518,11 @@ public class InquiryServiceTest {
         transferResponse.setLocationCode("LOC001");
         transferResponse.setBankCode("B001");
         transferResponse.setBankNumber("123456");
-        transferResponse.setAmount(1000.0);
+        transferResponse.setAmount(Amount.parse("1000.0"));
         transferResponse.setFirstName("John");
         transferResponse.setLastName("Doe");
 
-        assertThrows(NullPointerException.class, () -> inquiryService.inquiry(transferResponse));
+        assertThrows(RequestValidationException.class, () -> inquiryService.inquiry(transferResponse));
     }
 
     @Test
@@ -342,14 +536,35 @@ public class InquiryServiceTest {
         transferResponse.setLocationCode("LOC001");
         transferResponse.setBankCode("B001");
         transferResponse.setBankNumber("123456");
-        transferResponse.setAmount(1000.0);
+        transferResponse.setAmount(Amount.parse("1000.0"));
         transferResponse.setFirstName("John");
         transferResponse.setLastName("Doe");
 
-        NullPointerException exception = assertThrows(NullPointerException.class, () -> inquiryService.validateRequest(transferResponse));
+        RequestValidationException exception = assertThrows(RequestValidationException.class, () -> inquiryService.validateRequest(transferResponse));
         assertEquals("Transaction id Invalid Data", exception.getMessage());
     }
 
+    @Test
+    public void testInquiryRecordsMetrics() {
+
+        TransferResponse mockResponse = getTransferResponse();
+        when(bankProxyGateway.requestTransferAsync(any(TransferResponse.class)))
+                .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        inquiryService.inquiryAsync(mockResponse).join();
+        TransferResponse invalid = getTransferResponse();
+        invalid.setBankCode(null);
+        invalid.setLastName(null);
+        assertThrows(RequestValidationException.class, () -> inquiryService.inquiry(invalid));
+
+        verify(inquiryMetrics).gatewayCompleted(eq(mockResponse), anyLong(), eq(false));
+        verify(inquiryMetrics).responseBranch("unknown");
+        verify(inquiryMetrics).inquiryCompleted(eq(mockResponse), any(InquiryServiceResultDTO.class), anyLong());
+        verify(inquiryMetrics).validationFailed("bankCode");
+        verify(inquiryMetrics).validationFailed("lastName");
+        verify(inquiryMetrics, times(1)).inquiryStarted();
+    }
+
     @Test
     public void testValidateRequest_NullResponseCode() {
         TransferResponse transferResponse = new TransferResponse();
@@ -360,11 +575,11 @@ public class InquiryServiceTest {
         transferResponse.setLocationCode("LOC001");
         transferResponse.setBankCode("B001");
         transferResponse.setBankNumber("123456");
-        transferResponse.setAmount(1000.0);
+        transferResponse.setAmount(Amount.parse("1000.0"));
         transferResponse.setFirstName("John");
         transferResponse.setLastName("Doe");
 
-        NullPointerException exception = assertThrows(NullPointerException.class, () -> inquiryService.validateRequest(transferResponse));
+        RequestValidationException exception = assertThrows(RequestValidationException.class, () -> inquiryService.validateRequest(transferResponse));
         assertEquals("Response Code is required!", exception.getMessage());
     }
 
@@ -379,11 +594,11 @@ public class InquiryServiceTest {
         transferResponse.setLocationCode("LOC001");
         transferResponse.setBankCode("B001");
         transferResponse.setBankNumber("123456");
-        transferResponse.setAmount(1000.0);
+        transferResponse.setAmount(Amount.parse("1000.0"));
         transferResponse.setFirstName("John");
         transferResponse.setLastName("Doe");
 
-        NullPointerException exception = assertThrows(NullPointerException.class, () -> inquiryService.validateRequest(transferResponse));
+        RequestValidationException exception = assertThrows(RequestValidationException.class, () -> inquiryService.validateRequest(transferResponse));
         assertEquals("Transaction DateTime is required!", exception.getMessage());
     }
 
@@ -398,11 +613,11 @@ public class InquiryServiceTest {
         transferResponse.setLocationCode("LOC001");
         transferResponse.setBankCode("B001");
         transferResponse.setBankNumber("123456");
-        transferResponse.setAmount(1000.0);
+        transferResponse.setAmount(Amount.parse("1000.0"));
         transferResponse.setFirstName("John");
         transferResponse.setLastName("Doe");
 
-        NullPointerException exception = assertThrows(NullPointerException.class, () -> inquiryService.validateRequest(transferResponse));
+        RequestValidationException exception = assertThrows(RequestValidationException.class, () -> inquiryService.validateRequest(transferResponse));
         assertEquals("Channel is required!", exception.getMessage());
     }
 
@@ -417,11 +632,11 @@ public class InquiryServiceTest {
         transferResponse.setLocationCode(null); // Setting location code to null
         transferResponse.setBankCode("B001");
         transferResponse.setBankNumber("123456");
-        transferResponse.setAmount(1000.0);
+        transferResponse.setAmount(Amount.parse("1000.0"));
         transferResponse.setFirstName("John");
         transferResponse.setLastName("Doe");
 
-        NullPointerException exception = assertThrows(NullPointerException.class, () -> inquiryService.validateRequest(transferResponse));
+        RequestValidationException exception = assertThrows(RequestValidationException.class, () -> inquiryService.validateRequest(transferResponse));
         assertEquals("locationCode is required!", exception.getMessage());
     }
 
@@ -436,16 +651,16 @@ public class InquiryServiceTest {
         transferResponse.setLocationCode("LOC001");
         transferResponse.setBankCode(""); // Empty bank code
         transferResponse.setBankNumber("123456");
-        transferResponse.setAmount(1000.0);
+        transferResponse.setAmount(Amount.parse("1000.0"));
         transferResponse.setFirstName("John");
         transferResponse.setLastName("Doe");
 
-        NullPointerException exception = assertThrows(NullPointerException.class, () -> inquiryService.validateRequest(transferResponse));
+        RequestValidationException exception = assertThrows(RequestValidationException.class, () -> inquiryService.validateRequest(transferResponse));
         assertEquals("Bank Code is required!", exception.getMessage());
 
         // Test with null bank code
         transferResponse.setBankCode(null); // Null bank code
-        exception = assertThrows(NullPointerException.class, () -> inquiryService.validateRequest(transferResponse));
+        exception = assertThrows(RequestValidationException.class, () -> inquiryService.validateRequest(transferResponse));
         assertEquals("Bank Code is required!", exception.getMessage());
     }
 
@@ -460,16 +675,16 @@ public class InquiryServiceTest {
         transferResponse.setLocationCode("LOC001");
         transferResponse.setBankCode("B001");
         transferResponse.setBankNumber(""); // Empty bank number
-        transferResponse.setAmount(1000.0);
+        transferResponse.setAmount(Amount.parse("1000.0"));
         transferResponse.setFirstName("John");
         transferResponse.setLastName("Doe");
 
-        NullPointerException exception = assertThrows(NullPointerException.class, () -> inquiryService.validateRequest(transferResponse));
+        RequestValidationException exception = assertThrows(RequestValidationException.class, () -> inquiryService.validateRequest(transferResponse));
         assertEquals("Bank Number is required!", exception.getMessage());
 
         // Test with null bank number
         transferResponse.setBankNumber(null); // Null bank number
-        exception = assertThrows(NullPointerException.class, () -> inquiryService.validateRequest(transferResponse));
+        exception = assertThrows(RequestValidationException.class, () -> inquiryService.validateRequest(transferResponse));
         assertEquals("Bank Number is required!", exception.getMessage());
     }
 
@@ -484,12 +699,12 @@ public class InquiryServiceTest {
         transferResponse.setLocationCode("LOC001");
         transferResponse.setBankCode("B001");
         transferResponse.setBankNumber("123456");
-        transferResponse.setAmount(0); // Amount is zero
+        transferResponse.setAmount(Amount.ZERO); // Amount is zero
         transferResponse.setFirstName("John");
         transferResponse.setLastName("Doe");
 
         // Act & Assert
-        NullPointerException exception = assertThrows(NullPointerException.class, () -> inquiryService.validateRequest(transferResponse));
+        RequestValidationException exception = assertThrows(RequestValidationException.class, () -> inquiryService.validateRequest(transferResponse));
         assertEquals("Amount must more than zero!", exception.getMessage());
     }
 
@@ -504,11 +719,11 @@ public class InquiryServiceTest {
         transferResponse.setLocationCode("LOC001");
         transferResponse.setBankCode("B001");
         transferResponse.setBankNumber("123456");
-        transferResponse.setAmount(1000.0);
+        transferResponse.setAmount(Amount.parse("1000.0"));
         transferResponse.setFirstName(null); // Null first name
         transferResponse.setLastName("Doe");
 
-        NullPointerException exception = assertThrows(NullPointerException.class, () -> inquiryService.validateRequest(transferResponse));
+        RequestValidationException exception = assertThrows(RequestValidationException.class, () -> inquiryService.validateRequest(transferResponse));
         assertEquals("FirstName is required!", exception.getMessage());
     }
 
@@ -523,14 +738,41 @@ public class InquiryServiceTest {
         transferResponse.setLocationCode("LOC001");
         transferResponse.setBankCode("B001");
         transferResponse.setBankNumber("123456");
-        transferResponse.setAmount(1000.0);
+        transferResponse.setAmount(Amount.parse("1000.0"));
         transferResponse.setFirstName("John");
         transferResponse.setLastName(null); // Null last name
 
-        NullPointerException exception = assertThrows(NullPointerException.class, () -> inquiryService.validateRequest(transferResponse));
+        RequestValidationException exception = assertThrows(RequestValidationException.class, () -> inquiryService.validateRequest(transferResponse));
         assertEquals("LastName is required!", exception.getMessage());
     }
 
+    @Test
+    public void testValidateRequest_ReportsAllInvalidFields() {
+
+        TransferResponse transferResponse = new TransferResponse();
+        transferResponse.setBankTransactionID("123");
+        transferResponse.setResponseCode("00");
+        transferResponse.setTranDateTime(new Date());
+        transferResponse.setLocationCode("LOC001");
+        transferResponse.setBankCode("");
+        transferResponse.setBankNumber("123456");
+        transferResponse.setAmount(Amount.ZERO);
+        transferResponse.setFirstName("John");
+        transferResponse.setLastName("Doe");
+
+        RequestValidationException exception = assertThrows(RequestValidationException.class, () -> inquiryService.validateRequest(transferResponse));
+
+        List<FieldViolation> violations = exception.getViolations();
+        assertEquals(3, violations.size());
+        assertEquals("channel", violations.get(0).getField());
+        assertEquals("required", violations.get(0).getCode());
+        assertEquals("bankCode", violations.get(1).getField());
+        assertEquals("amount", violations.get(2).getField());
+        assertEquals("must_be_positive", violations.get(2).getCode());
+        assertEquals("Channel is required!, Bank Code is required!, Amount must more than zero!", exception.getMessage());
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
     @Test
     public void testValidateRequest_ValidInputs() {
 
@@ -542,7 +784,7 @@ public class InquiryServiceTest {
         transferResponse.setLocationCode("LOC001");
         transferResponse.setBankCode("B001");
         transferResponse.setBankNumber("123456");
-        transferResponse.setAmount(1000.0);
+        transferResponse.setAmount(Amount.parse("1000.0"));
         transferResponse.setFirstName("John");
         transferResponse.setLastName("Doe");
 
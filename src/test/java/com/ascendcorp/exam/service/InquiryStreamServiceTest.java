@@ -0,0 +1,88 @@
+package com.ascendcorp.exam.service;
+
+import com.ascendcorp.exam.config.BankGuardProperties;
+import com.ascendcorp.exam.config.BankHedgeProperties;
+import com.ascendcorp.exam.config.BankRateLimitProperties;
+import com.ascendcorp.exam.journal.InquiryJournal;
+import com.ascendcorp.exam.proxy.BankCallGuard;
+import com.ascendcorp.exam.proxy.BankProxyGateway;
+import com.ascendcorp.exam.proxy.BankRateLimiter;
+import com.ascendcorp.exam.proxy.BankRequestHedger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InquiryStreamServiceTest {
+
+    private static final String APPROVED = "{\"bankTransactionID\":\"TX1\",\"responseCode\":\"approved\","
+            + "\"tranDateTime\":\"2024-01-31\",\"channel\":\"ATM\",\"locationCode\":\"LOC001\",\"bankCode\":\"B001\","
+            + "\"bankNumber\":\"123456\",\"description\":\"Transaction approved\",\"amount\":1000.0,"
+            + "\"firstName\":\"John\",\"lastName\":\"Doe\"}";
+
+    private InquiryStreamService inquiryStreamService;
+
+    @BeforeEach
+    void setUp() {
+        InquiryService inquiryService = new InquiryService();
+        ReflectionTestUtils.setField(inquiryService, "bankProxyGateway", new BankProxyGateway());
+        ReflectionTestUtils.setField(inquiryService, "inquiryResultCache", new InquiryResultCache());
+        ReflectionTestUtils.setField(inquiryService, "bankCallGuard", new BankCallGuard(new BankGuardProperties()));
+        ReflectionTestUtils.setField(inquiryService, "bankRequestHedger", new BankRequestHedger(new BankHedgeProperties()));
+        ReflectionTestUtils.setField(inquiryService, "inquiryMetrics", new InquiryMetrics());
+        ReflectionTestUtils.setField(inquiryService, "responseCodeTable", new ResponseCodeTable());
+        ReflectionTestUtils.setField(inquiryService, "inquiryJournal", new InquiryJournal());
+        ReflectionTestUtils.setField(inquiryService, "bankRateLimiter", new BankRateLimiter(new BankRateLimitProperties()));
+
+        inquiryStreamService = new InquiryStreamService();
+        ReflectionTestUtils.setField(inquiryStreamService, "inquiryService", inquiryService);
+        ReflectionTestUtils.setField(inquiryStreamService, "objectMapper", new ObjectMapper());
+    }
+
+    private String stream(String input) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        inquiryStreamService.inquiryStream(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testStreamWritesOneLinePerRecord() throws Exception {
+
+        String[] lines = stream(APPROVED + "\n" + APPROVED.replace("TX1", "TX2") + "\n").split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"index\":0"));
+        assertTrue(lines[0].contains("\"tranID\":\"TX1\""));
+        assertTrue(lines[0].contains("\"reasonCode\":\"200\""));
+        assertTrue(lines[1].contains("\"tranID\":\"TX2\""));
+    }
+
+    @Test
+    void testInvalidRecordDoesNotStopStream() throws Exception {
+
+        String[] lines = stream("{\"bankTransactionID\":\"TX0\"}\n"
+                + "{\"tranDateTime\":\"not-a-date\"}\n"
+                + APPROVED + "\n").split("\n");
+
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("Response Code is required!"));
+        assertTrue(lines[1].contains("Invalid record"));
+        assertTrue(lines[2].contains("\"reasonCode\":\"200\""));
+    }
+
+    @Test
+    void testMalformedJsonStopsStreamWithError() throws Exception {
+
+        String[] lines = stream(APPROVED + "\n{\"bankTransactionID\": }\n" + APPROVED + "\n").split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("\"index\":1"));
+        assertTrue(lines[1].contains("Invalid record"));
+    }
+}
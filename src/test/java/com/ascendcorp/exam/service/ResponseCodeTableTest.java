@@ -0,0 +1,111 @@
+package com.ascendcorp.exam.service;
+
+import com.ascendcorp.exam.config.ResponseCodeProperties;
+import com.ascendcorp.exam.config.ResponseCodeProperties.Handler;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCodeTableTest {
+
+    private static ResponseCodeProperties.Mapping mapping(Handler handler, String reasonCode, String reasonDesc) {
+        ResponseCodeProperties.Mapping mapping = new ResponseCodeProperties.Mapping();
+        mapping.setHandler(handler);
+        mapping.setReasonCode(reasonCode);
+        mapping.setReasonDesc(reasonDesc);
+        return mapping;
+    }
+
+    @Test
+    void testDefaultCodesMatchCaseInsensitively() {
+
+        ResponseCodeTable table = new ResponseCodeTable();
+
+        for (String code : new String[]{"approved", "APPROVED", "Approved"}) {
+            assertEquals(Handler.APPROVED, table.lookup(code).getHandler());
+            assertEquals("200", table.lookup(code).getReasonCode());
+        }
+        assertEquals(Handler.INVALID_DATA, table.lookup("Invalid_Data").getHandler());
+        assertEquals("400", table.lookup("invalid_data").getReasonCode());
+        assertEquals("General Invalid Data", table.lookup("invalid_data").getReasonDesc());
+        assertEquals("500", table.lookup("TRANSACTION_ERROR").getReasonCode());
+        assertEquals("General Transaction Error", table.lookup("transaction_error").getReasonDesc());
+        assertEquals("501", table.lookup("unknown").getReasonCode());
+        assertEquals("transaction_error", table.lookup("Transaction_Error").getBranch());
+    }
+
+    @Test
+    void testUnsupportedCodes() {
+
+        ResponseCodeTable table = new ResponseCodeTable();
+
+        assertNull(table.lookup("unsupported_code"));
+        assertNull(table.lookup("approve"));
+        assertNull(table.lookup("approvedd"));
+        assertNull(table.lookup(""));
+        assertNull(table.lookup(null));
+    }
+
+    @Test
+    void testConfiguredCodesAndOverrides() {
+
+        ResponseCodeProperties properties = new ResponseCodeProperties();
+        properties.getCodes().put("partial_approved", mapping(Handler.APPROVED, null, null));
+        properties.getCodes().put("ERR_TIMEOUT", mapping(Handler.TRANSACTION_ERROR, "504", "Bank Timeout"));
+        // override เฉพาะ reason code ของ code เดิม ไม่ต้องระบุ handler
+        properties.getCodes().put("unknown", mapping(null, "599", null));
+
+        ResponseCodeTable table = new ResponseCodeTable(properties);
+
+        assertEquals(Handler.APPROVED, table.lookup("PARTIAL_APPROVED").getHandler());
+        assertEquals("504", table.lookup("err_timeout").getReasonCode());
+        assertEquals("Bank Timeout", table.lookup("Err_Timeout").getReasonDesc());
+        assertEquals(Handler.UNKNOWN, table.lookup("unknown").getHandler());
+        assertEquals("599", table.lookup("unknown").getReasonCode());
+        assertEquals("General Invalid Data", table.lookup("unknown").getReasonDesc());
+    }
+
+    @Test
+    void testManyCodesResolve() {
+
+        ResponseCodeProperties properties = new ResponseCodeProperties();
+        for (int i = 0; i < 500; i++) {
+            properties.getCodes().put("code_" + i, mapping(Handler.UNKNOWN, String.valueOf(i), null));
+        }
+        ResponseCodeTable table = new ResponseCodeTable(properties);
+
+        for (int i = 0; i < 500; i++) {
+            assertEquals(String.valueOf(i), table.lookup("CODE_" + i).getReasonCode());
+        }
+        assertEquals(Handler.APPROVED, table.lookup("approved").getHandler());
+    }
+
+    @Test
+    void testInvalidConfigRejected() {
+
+        ResponseCodeProperties duplicate = new ResponseCodeProperties();
+        duplicate.getCodes().put("APPROVED", mapping(Handler.APPROVED, null, null));
+        assertThrows(IllegalArgumentException.class, () -> new ResponseCodeTable(duplicate));
+
+        ResponseCodeProperties noHandler = new ResponseCodeProperties();
+        noHandler.getCodes().put("mystery", mapping(null, "999", null));
+        assertThrows(IllegalArgumentException.class, () -> new ResponseCodeTable(noHandler));
+    }
+
+    @Test
+    void testReloadSwapsTableAndKeepsOldOnError() {
+
+        ResponseCodeTable table = new ResponseCodeTable();
+        assertNull(table.lookup("pending"));
+
+        ResponseCodeProperties reloaded = new ResponseCodeProperties();
+        reloaded.getCodes().put("pending", mapping(Handler.UNKNOWN, "202", "Pending"));
+        table.reload(reloaded);
+        assertEquals("202", table.lookup("PENDING").getReasonCode());
+
+        ResponseCodeProperties invalid = new ResponseCodeProperties();
+        invalid.getCodes().put("broken", mapping(null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> table.reload(invalid));
+        assertEquals("202", table.lookup("pending").getReasonCode());
+    }
+}
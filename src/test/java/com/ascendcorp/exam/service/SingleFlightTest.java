@@ -0,0 +1,91 @@
+package com.ascendcorp.exam.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void testConcurrentCallsShareOneExecution() throws Exception {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("TX1", () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "result";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<String> follower = executor.submit(() -> singleFlight.execute("TX1", () -> {
+                calls.incrementAndGet();
+                return "other";
+            }));
+            while (singleFlight.getDeduplicated() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertEquals("result", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("result", follower.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+            assertEquals(1, singleFlight.getExecutions());
+            assertEquals(1, singleFlight.getDeduplicated());
+            assertEquals(0, singleFlight.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailureIsSharedWithWaiters() {
+
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.executeAsync("TX1", () -> upstream);
+        CompletableFuture<String> second = singleFlight.executeAsync("TX1", CompletableFuture::new);
+        assertSame(first, second);
+
+        upstream.completeExceptionally(new IllegalStateException("Unable to inquiry from service."));
+
+        CompletionException e = assertThrows(CompletionException.class, second::join);
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertEquals("Unable to inquiry from service.", e.getCause().getMessage());
+        assertEquals(1, singleFlight.getExecutions());
+        assertEquals(1, singleFlight.getDeduplicated());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    void testCompletedCallIsNotReused() {
+
+        assertEquals("a", singleFlight.execute("TX1", () -> "a"));
+        assertEquals("b", singleFlight.execute("TX1", () -> "b"));
+        assertEquals(2, singleFlight.getExecutions());
+        assertEquals(0, singleFlight.getDeduplicated());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}